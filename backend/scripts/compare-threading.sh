@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Runs the same load against the backend with platform threads and with virtual threads.
+#
+# Needs Java 21 on the PATH, a jar built with `./gradlew bootJar -PjavaVersion=21`
+# and `hey` (https://github.com/rakyll/hey) for the load.
+#
+# Usage: scripts/compare-threading.sh [concurrency] [duration] [year]
+set -euo pipefail
+
+CONCURRENCY=${1:-500}
+DURATION=${2:-30s}
+YEAR=${3:-2024}
+PORT=${PORT:-8090}
+JAR=${JAR:-build/libs/map-0.0.1-SNAPSHOT.jar}
+BODY='{"leftTopPointLatLon": [55.0, 10.0], "rightBottomPointLatLon": [45.0, 25.0], "zoom": 5}'
+
+command -v hey >/dev/null || { echo "hey is not installed" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "$JAR not found, run ./gradlew bootJar -PjavaVersion=21" >&2; exit 1; }
+
+run() {
+    local mode=$1 virtual=$2
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+        > "build/threading-$mode.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null' RETURN
+
+    until curl -sf "http://127.0.0.1:$PORT/api/chunks" >/dev/null; do
+        kill -0 $pid 2>/dev/null || { echo "backend exited, see build/threading-$mode.log" >&2; return 1; }
+        sleep 1
+    done
+
+    # Warm-up fills the zone index and geometry caches so both modes measure the same work
+    hey -n 200 -c 20 -m POST -T application/json -d "$BODY" "http://127.0.0.1:$PORT/api/areas/$YEAR" >/dev/null
+
+    echo "=== $mode threads, $CONCURRENCY concurrent for $DURATION ==="
+    hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json -d "$BODY" \
+        "http://127.0.0.1:$PORT/api/areas/$YEAR" | tee "build/threading-$mode.txt" \
+        | grep -E 'Requests/sec|Average|99% in|Status code|\[[0-9]+\]'
+}
+
+mkdir -p build
+run platform false
+run virtual true
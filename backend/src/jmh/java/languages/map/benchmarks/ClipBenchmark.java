@@ -0,0 +1,59 @@
+package languages.map.benchmarks;
+
+import languages.map.geometry.RectangleClipper;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clipping every fixture polygon to a bounding box: the envelope-guarded OverlayNG path of
+ * {@link RectangleClipper} against a plain {@code Geometry.intersection}, the OverlayOp path it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClipBenchmark {
+    @Param({"2", "10", "40"})
+    public double bboxSize;
+
+    private List<Geometry> geometries;
+    private RectangleClipper clipper;
+    private Geometry rectangle;
+
+    @Setup
+    public void setUp() {
+        geometries = new ArrayList<>();
+        for (LanguagesZone zone : ZoneFixtures.zones()) {
+            for (GeoJsonPolygon polygon : zone.getCoords()) {
+                Polygon converted = ZoneGeometries.toPolygon(polygon);
+                if (converted != null) {
+                    geometries.add(converted.isValid() ? converted : converted.buffer(0));
+                }
+            }
+        }
+        clipper = new RectangleClipper(ZoneFixtures.boundingBox(bboxSize));
+        rectangle = ZoneGeometries.FACTORY.toGeometry(clipper.getRectangle());
+    }
+
+    @Benchmark
+    public void rectangleClipper(Blackhole blackhole) {
+        for (Geometry geometry : geometries) {
+            blackhole.consume(clipper.clip(geometry));
+        }
+    }
+
+    @Benchmark
+    public void overlayOpIntersection(Blackhole blackhole) {
+        for (Geometry geometry : geometries) {
+            blackhole.consume(geometry.intersection(rectangle));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package languages.map.benchmarks;
+
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning stored polygons into JTS geometries: building and parsing a WKT string per polygon
+ * against filling a packed coordinate sequence directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversionBenchmark {
+    private List<GeoJsonPolygon> polygons;
+    private final WKTReader wktReader = new WKTReader();
+
+    @Setup
+    public void setUp() {
+        polygons = new ArrayList<>();
+        for (LanguagesZone zone : ZoneFixtures.zones()) {
+            polygons.addAll(zone.getCoords());
+        }
+    }
+
+    @Benchmark
+    public void wktBuildAndParse(Blackhole blackhole) throws ParseException {
+        for (GeoJsonPolygon polygon : polygons) {
+            StringBuilder wkt = new StringBuilder("POLYGON((");
+            List<Point> points = polygon.getPoints();
+            for (int i = 0; i < points.size(); i++) {
+                if (i > 0) {
+                    wkt.append(", ");
+                }
+                wkt.append(points.get(i).getX()).append(' ').append(points.get(i).getY());
+            }
+            wkt.append("))");
+            blackhole.consume(wktReader.read(wkt.toString()));
+        }
+    }
+
+    @Benchmark
+    public void packedSequence(Blackhole blackhole) {
+        for (GeoJsonPolygon polygon : polygons) {
+            blackhole.consume(ZoneGeometries.toPolygon(polygon));
+        }
+    }
+}
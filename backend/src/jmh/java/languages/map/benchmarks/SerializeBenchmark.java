@@ -0,0 +1,45 @@
+package languages.map.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import languages.map.models.LanguagesZone;
+import languages.map.serializers.ObjectIdSerializer;
+import languages.map.serializers.ZoneBinaryWriter;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing all fixture zones as the JSON response, coordinates written by {@code GeoJsonPolygonListSerializer},
+ * against the compact binary zone format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializeBenchmark {
+    private List<LanguagesZone> zones;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        zones = ZoneFixtures.zones();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new SimpleModule().addSerializer(ObjectId.class, new ObjectIdSerializer()));
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return objectMapper.writeValueAsBytes(zones);
+    }
+
+    @Benchmark
+    public byte[] binary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ZoneBinaryWriter(out, 6).writeAll(zones);
+        return out.toByteArray();
+    }
+}
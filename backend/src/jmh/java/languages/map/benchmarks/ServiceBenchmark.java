@@ -0,0 +1,65 @@
+package languages.map.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import languages.map.services.LanguagesZoneIndex;
+import languages.map.services.LanguagesZoneService;
+import languages.map.services.ZoneGeometryCache;
+import languages.map.services.ZoneMetrics;
+import languages.map.services.ZoneQueryMode;
+import org.locationtech.jts.geom.Envelope;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * End-to-end {@link LanguagesZoneService#getLanguagesZone} over the fixtures with a warm index and geometry cache,
+ * at full resolution and at the simplified levels picked for low zooms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    @Param({"2", "10", "40"})
+    public double bboxSize;
+
+    /**
+     * Simplification tolerance in degrees, 0 for full resolution.
+     */
+    @Param({"0", "0.01", "0.05"})
+    public double tolerance;
+
+    private LanguagesZoneService service;
+    private ExecutorService executor;
+    private Envelope boundingBox;
+
+    @Setup
+    public void setUp() {
+        LanguagesZoneRepository repository = mock(LanguagesZoneRepository.class);
+        when(repository.findAllByYear(ZoneFixtures.YEAR)).thenReturn(Optional.of(ZoneFixtures.zones()));
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        service = new LanguagesZoneService(repository, new LanguagesZoneIndex(repository, 32),
+                new ZoneGeometryCache(new double[]{0.001, 0.01, 0.05, 0.2}, 20_000), event -> {
+        }, ZoneQueryMode.INDEX, executor, 60_000, new ZoneMetrics(new SimpleMeterRegistry()));
+        boundingBox = ZoneFixtures.boundingBox(bboxSize);
+        service.getLanguagesZone(boundingBox, tolerance, ZoneFixtures.YEAR);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<LanguagesZone> getLanguagesZone() {
+        return service.getLanguagesZone(boundingBox, tolerance, ZoneFixtures.YEAR);
+    }
+}
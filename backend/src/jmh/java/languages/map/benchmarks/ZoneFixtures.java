@@ -0,0 +1,52 @@
+package languages.map.benchmarks;
+
+import languages.map.models.LanguagesZone;
+import languages.map.serializers.GeoJsonFeatureReader;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Country polygons of {@code client/custom.geo.json} as zones, the same data the client ships with.
+ * The file is taken from the {@code map.fixtures} system property, set by the jmh task.
+ */
+final class ZoneFixtures {
+    static final int YEAR = 2024;
+    private static List<LanguagesZone> zones;
+
+    private ZoneFixtures() {
+    }
+
+    static synchronized List<LanguagesZone> zones() {
+        if (zones == null) {
+            Path path = Path.of(System.getProperty("map.fixtures", "../client/custom.geo.json"));
+            try (InputStream in = Files.newInputStream(path)) {
+                List<LanguagesZone> read = GeoJsonFeatureReader.read(in, YEAR);
+                for (LanguagesZone zone : read) {
+                    zone.setId(new ObjectId());
+                    zone.setVersion(1L);
+                }
+                zones = List.copyOf(read);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read fixtures from " + path.toAbsolutePath(), e);
+            }
+        }
+        return zones;
+    }
+
+    /**
+     * @param size side of the box in degrees
+     * @return box of the given size centred on central Europe, latitude on x as stored
+     */
+    static Envelope boundingBox(double size) {
+        double lat = 50;
+        double lon = 15;
+        return new Envelope(lat - size / 2, lat + size / 2, lon - size / 2, lon + size / 2);
+    }
+}
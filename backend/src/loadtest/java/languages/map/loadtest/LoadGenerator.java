@@ -0,0 +1,212 @@
+package languages.map.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for the {@code /api} endpoints: every worker sends one request at a time for the
+ * duration of the run and the latency of each is recorded per scenario. Requests of the warm-up are not counted.
+ * <p>
+ * Options, all optional: {@code --base-url=http://127.0.0.1:8080/api --concurrency=64 --duration=30 --warmup=5
+ * --year=2024 --scenarios=areas,batch,all,chunks,tiles}. Viewports are random boxes of 1 to 16 degrees over Europe.
+ */
+public class LoadGenerator {
+    private static final double[] VIEWPORT_SIZES = {1, 4, 16};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final int year;
+    private final List<String> scenarios;
+
+    LoadGenerator(String baseUrl, int year, List<String> scenarios) {
+        this.baseUrl = baseUrl.replaceAll("/$", "");
+        this.year = year;
+        this.scenarios = scenarios;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(parts[0], parts.length > 1 ? parts[1] : "true");
+        }
+        LoadGenerator generator = new LoadGenerator(
+                options.getOrDefault("base-url", "http://127.0.0.1:8080/api"),
+                Integer.parseInt(options.getOrDefault("year", "2024")),
+                List.of(options.getOrDefault("scenarios", "areas,batch,all,chunks,tiles").split(",")));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+
+        System.out.printf("Warming up for %d s with %d workers%n", warmup, concurrency);
+        generator.run(concurrency, warmup);
+        System.out.printf("Measuring for %d s with %d workers%n", duration, concurrency);
+        Map<String, Recorder> results = generator.run(concurrency, duration);
+        print(results, duration);
+    }
+
+    Map<String, Recorder> run(int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, Recorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> work(deadline)));
+        }
+        Map<String, Recorder> merged = new LinkedHashMap<>();
+        for (Future<Map<String, Recorder>> future : futures) {
+            future.get().forEach((scenario, recorder) ->
+                    merged.computeIfAbsent(scenario, s -> new Recorder()).addAll(recorder));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private Map<String, Recorder> work(long deadline) {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            String scenario = scenarios.get(random.nextInt(scenarios.size()));
+            HttpRequest request = request(scenario, random);
+            Recorder recorder = recorders.computeIfAbsent(scenario, s -> new Recorder());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                recorder.record(System.nanoTime() - start, response.statusCode() >= 400);
+            } catch (Exception e) {
+                recorder.record(System.nanoTime() - start, true);
+            }
+        }
+        return recorders;
+    }
+
+    private HttpRequest request(String scenario, ThreadLocalRandom random) {
+        double size = VIEWPORT_SIZES[random.nextInt(VIEWPORT_SIZES.length)];
+        double lat = random.nextDouble(40, 60);
+        double lon = random.nextDouble(-5, 35);
+        int zoom = (int) Math.round(Math.log(360 / size) / Math.log(2));
+        return switch (scenario) {
+            case "areas" -> post("/areas/" + year, box(lat, lon, size) + ",\"zoom\":" + zoom + "}");
+            case "batch" -> {
+                StringBuilder chunks = new StringBuilder();
+                double half = size / 2;
+                for (int row = 0; row < 2; row++) {
+                    for (int column = 0; column < 2; column++) {
+                        if (chunks.length() > 0) {
+                            chunks.append(',');
+                        }
+                        chunks.append('"').append(row).append(':').append(column).append("\":")
+                                .append(box(lat - row * half, lon + column * half, half)).append('}');
+                    }
+                }
+                yield post("/areas/" + year + "/batch", "{\"zoom\":" + zoom + ",\"chunks\":{" + chunks + "}}");
+            }
+            case "all" -> get("/all/" + year);
+            case "chunks" -> get("/chunks");
+            case "tiles" -> {
+                int z = random.nextInt(3, 9);
+                int x = (int) Math.floor((lon + 180) / 360 * (1 << z));
+                double latRad = Math.toRadians(lat);
+                int y = (int) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << z));
+                yield get("/tiles/" + year + "/" + z + "/" + x + "/" + y + ".mvt");
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    /**
+     * @return bounding box body without the closing brace, top-left corner at the given point
+     */
+    private static String box(double lat, double lon, double size) {
+        return String.format(Locale.ROOT, "{\"leftTopPointLatLon\":[%.5f,%.5f],\"rightBottomPointLatLon\":[%.5f,%.5f]",
+                lat, lon, lat - size, lon + size);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void print(Map<String, Recorder> results, int seconds) {
+        System.out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Recorder total = new Recorder();
+        results.forEach((scenario, recorder) -> {
+            printRow(scenario, recorder, seconds);
+            total.addAll(recorder);
+        });
+        printRow("total", total, seconds);
+    }
+
+    private static void printRow(String name, Recorder recorder, int seconds) {
+        long[] sorted = recorder.sorted();
+        System.out.printf(Locale.ROOT, "%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, sorted.length, recorder.errors, (double) sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Latencies of one scenario in nanoseconds; owned by a single worker until merged.
+     */
+    static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long latency, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
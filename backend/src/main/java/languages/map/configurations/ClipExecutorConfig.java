@@ -0,0 +1,50 @@
+package languages.map.configurations;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ClipExecutorConfig {
+
+    /**
+     * Pool zone clipping fans out to. Its queue is bounded and a full queue makes the
+     * submitting request thread clip the zone itself, so bursts slow down instead of piling up.
+     * Once the pool is shut down submissions are rejected, see {@link CallerRunsUnlessShutdown}.
+     *
+     * @param parallelism   worker threads, 0 means one per available processor
+     * @param queueCapacity zones waiting for a worker
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService zoneClipExecutor(@Value("${map.zones.clip.parallelism:0}") int parallelism,
+                                            @Value("${map.zones.clip.queue-capacity:1024}") int queueCapacity) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("zone-clip-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new CallerRunsUnlessShutdown());
+    }
+
+    /**
+     * Runs tasks the busy pool can't take on the submitting thread. {@link ThreadPoolExecutor.CallerRunsPolicy}
+     * silently drops them once the pool is shut down, leaving their futures pending until the clip deadline;
+     * this policy throws instead, so submitters can clip on their own thread right away.
+     */
+    static final class CallerRunsUnlessShutdown implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Zone clip executor is shut down");
+            }
+            task.run();
+        }
+    }
+}
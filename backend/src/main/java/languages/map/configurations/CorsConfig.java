@@ -13,7 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                         "http://127.0.0.1:8000",
                         "http://localhost:8000"
                 )
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
@@ -0,0 +1,56 @@
+package languages.map.configurations;
+
+import languages.map.dto.ZoneImportResult;
+import languages.map.services.LanguagesZoneImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Fills the in-memory repositories of the {@code inmemory} profile from GeoJSON FeatureCollections on startup.
+ * Zones go through {@link LanguagesZoneImportService} so they get ids, versions and envelopes like imported zones.
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemorySeeder implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySeeder.class);
+    private final LanguagesZoneImportService languagesZoneImportService;
+    private final String[] files;
+    private final int[] years;
+
+    /**
+     * @param files GeoJSON files to load, every feature becomes one zone
+     * @param years years every file is loaded into
+     */
+    public InMemorySeeder(LanguagesZoneImportService languagesZoneImportService,
+                          @Value("${map.inmemory.seed.files:../client/custom.geo.json}") String[] files,
+                          @Value("${map.inmemory.seed.years:2024}") int[] years) {
+        this.languagesZoneImportService = languagesZoneImportService;
+        this.files = files;
+        this.years = years;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (String file : files) {
+            if (file.isBlank()) {
+                continue;
+            }
+            for (int year : years) {
+                try (InputStream in = Files.newInputStream(Path.of(file.trim()))) {
+                    ZoneImportResult result = languagesZoneImportService.importZones(in, year);
+                    logger.info("Seeded {} languages zones for year {} from {}", result.getImported(), year, file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package languages.map.configurations;
+
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import languages.map.services.ZoneMetrics;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds the {@code year} path variable as a tag of {@code http.server.requests}, so request latency
+     * can be told apart per endpoint and year. Requests without a numeric year are tagged {@code none}.
+     */
+    @Bean
+    public ServerRequestObservationConvention yearTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and("year", year(context.getCarrier()));
+            }
+        };
+    }
+
+    private static String year(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("year") instanceof String year && year.matches("\\d{1,4}")) {
+            return year;
+        }
+        return "none";
+    }
+
+    /**
+     * Records the bytes written by every {@code /api} response in {@code map.http.response.bytes}.
+     * Streamed responses are recorded once their async processing completes.
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> responseBytesFilter(ZoneMetrics zoneMetrics) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                CountingResponse counting = new CountingResponse(response);
+                try {
+                    filterChain.doFilter(request, counting);
+                } finally {
+                    if (request.isAsyncStarted()) {
+                        request.getAsyncContext().addListener(new AsyncListener() {
+                            @Override
+                            public void onComplete(AsyncEvent event) {
+                                record(zoneMetrics, request, counting);
+                            }
+
+                            @Override
+                            public void onTimeout(AsyncEvent event) {
+                            }
+
+                            @Override
+                            public void onError(AsyncEvent event) {
+                            }
+
+                            @Override
+                            public void onStartAsync(AsyncEvent event) {
+                            }
+                        });
+                    } else {
+                        record(zoneMetrics, request, counting);
+                    }
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static void record(ZoneMetrics zoneMetrics, HttpServletRequest request, CountingResponse response) {
+        if (response.bytes == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String contentType = response.getContentType();
+        zoneMetrics.recordResponseBytes(
+                pattern != null ? pattern.toString() : "UNKNOWN",
+                contentType != null ? contentType.split(";")[0].trim() : "none",
+                response.bytes);
+    }
+
+    /**
+     * Counts what is written to the output stream; one stream is handed out per response.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private ServletOutputStream outputStream;
+        private volatile long bytes;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package languages.map.configurations;
+
+import languages.map.models.LanguagesZone;
+import languages.map.services.ZoneQueryMode;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+
+/**
+ * Creates the indexes the zone queries rely on once the application is up. The 2dsphere index is only built for
+ * the GEO bbox query mode.
+ */
+@Configuration
+@Profile("!inmemory")
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+    private static final String LEGACY_COORDS_INDEX = "year_coords_2dsphere";
+    private final MongoTemplate mongoTemplate;
+    private final ZoneQueryMode bboxQueryMode;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate,
+                            @Value("${map.zones.bbox-query:INDEX}") ZoneQueryMode bboxQueryMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.bboxQueryMode = bboxQueryMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        dropLegacyCoordsIndex();
+        if (bboxQueryMode == ZoneQueryMode.GEO) {
+            try {
+                mongoTemplate.indexOps(LanguagesZone.class).ensureIndex(
+                        new CompoundIndexDefinition(new Document("year", 1).append("geoEnvelope", "2dsphere"))
+                                .named("year_geoEnvelope_2dsphere"));
+                logger.info("Ensured year + geoEnvelope 2dsphere index on languagesZone");
+            } catch (Exception e) {
+                logger.error("Failed to create year + geoEnvelope 2dsphere index on languagesZone", e);
+            }
+        }
+        try {
+            mongoTemplate.indexOps(LanguagesZone.class).ensureIndex(
+                    new CompoundIndexDefinition(new Document("year", 1)
+                            .append("minX", 1)
+                            .append("maxX", 1)
+                            .append("minY", 1)
+                            .append("maxY", 1)
+                            .append("_id", 1))
+                            .named("year_envelope"));
+            logger.info("Ensured year + envelope index on languagesZone");
+        } catch (Exception e) {
+            logger.error("Failed to create year + envelope index on languagesZone", e);
+        }
+    }
+
+    /**
+     * Earlier versions indexed {@code coords}, which are stored latitude first: MongoDB rejected every zone
+     * beyond 90 degrees of longitude or with a self-intersecting ring once the index existed.
+     */
+    private void dropLegacyCoordsIndex() {
+        try {
+            boolean present = mongoTemplate.indexOps(LanguagesZone.class).getIndexInfo().stream()
+                    .anyMatch(index -> LEGACY_COORDS_INDEX.equals(index.getName()));
+            if (present) {
+                mongoTemplate.indexOps(LanguagesZone.class).dropIndex(LEGACY_COORDS_INDEX);
+                logger.info("Dropped {} index on languagesZone", LEGACY_COORDS_INDEX);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to drop {} index on languagesZone", LEGACY_COORDS_INDEX, e);
+        }
+    }
+}
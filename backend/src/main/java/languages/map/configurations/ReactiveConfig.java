@@ -0,0 +1,64 @@
+package languages.map.configurations;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import languages.map.repositories.ReactiveLanguagesZoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Everything the reactive endpoints need, created only with {@code map.reactive.enabled=true}.
+ * The reactive Mongo auto-configuration is excluded in {@link languages.map.MapApplication}, so the blocking
+ * mode opens no second connection pool; here the reactive client follows the connection settings of the
+ * blocking one and shares its database and mapping.
+ */
+@Configuration
+@ConditionalOnProperty(name = "map.reactive.enabled", havingValue = "true")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveLanguagesZoneRepository.class)
+public class ReactiveConfig {
+
+    /**
+     * Fixed-size scheduler the reactive endpoints clip zones on, so clipping concurrency follows the CPU count
+     * instead of the number of open requests.
+     *
+     * @param parallelism worker threads, 0 means one per available processor
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler zoneClipScheduler(@Value("${map.zones.clip.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newParallel("zone-clip-reactive-", threads, true);
+    }
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoConnectionDetails connectionDetails) {
+        return MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(connectionDetails.getConnectionString())
+                .build());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoTemplate mongoTemplate,
+                                                       MongoMappingContext mongoMappingContext,
+                                                       MongoCustomConversions mongoCustomConversions) {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mongoMappingContext);
+        converter.setCustomConversions(mongoCustomConversions);
+        converter.afterPropertiesSet();
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, mongoTemplate.getDb().getName()),
+                converter);
+    }
+}
@@ -1,10 +1,14 @@
 package languages.map.configurations;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -17,6 +21,10 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    /**
+     * Role of the Prometheus scrape user, the only one allowed to read {@code /actuator/prometheus}.
+     */
+    public static final String METRICS_ROLE = "METRICS";
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -25,6 +33,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // meter names and tags expose internals, so scraping needs its own credentials
+                        .requestMatchers("/actuator/prometheus").hasRole(METRICS_ROLE)
+                        // STOMP handshake; browsers can't send credentials with it and topics carry public zone data
+                        .requestMatchers("/ws/**", "/ws").permitAll()
                         .anyRequest().authenticated()
                 )
                 .httpBasic(withDefaults());
@@ -32,11 +45,30 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * The basic auth user of {@code spring.security.user} and the Prometheus scrape user.
+     */
+    @Bean
+    public InMemoryUserDetailsManager userDetailsService(SecurityProperties securityProperties,
+                                                         @Value("${map.metrics.username:prometheus}") String metricsUsername,
+                                                         @Value("${map.metrics.password:metrics}") String metricsPassword) {
+        SecurityProperties.User user = securityProperties.getUser();
+        return new InMemoryUserDetailsManager(
+                User.withUsername(user.getName())
+                        .password("{noop}" + user.getPassword())
+                        .roles(user.getRoles().toArray(String[]::new))
+                        .build(),
+                User.withUsername(metricsUsername)
+                        .password("{noop}" + metricsPassword)
+                        .roles(METRICS_ROLE)
+                        .build());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://127.0.0.1:8000", "http://localhost:8000"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
 
@@ -0,0 +1,92 @@
+package languages.map.configurations;
+
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * Fills the envelope fields of zones written before the service maintained them.
+ * Only documents without {@code minX} or {@code geoEnvelope} are touched. A completed run is recorded in the
+ * {@code migrations} collection, so later startups skip the unindexed scan; delete the record to run it again.
+ */
+@Configuration
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "map.zones.envelope-migration", havingValue = "true", matchIfMissing = true)
+public class ZoneEnvelopeMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ZoneEnvelopeMigration.class);
+    private static final int BATCH_SIZE = 500;
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    /**
+     * Bumped when the migration starts filling another field, so stores migrated before run it once more.
+     */
+    static final String MIGRATION_ID = "zone-envelopes-v2";
+    private final MongoTemplate mongoTemplate;
+
+    public ZoneEnvelopeMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (mongoTemplate.exists(new Query(Criteria.where("_id").is(MIGRATION_ID)), MIGRATIONS_COLLECTION)) {
+            logger.debug("Envelope migration {} already completed", MIGRATION_ID);
+            return;
+        }
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("minX").exists(false), Criteria.where("geoEnvelope").exists(false)));
+        query.fields().include("id").include("coords");
+        int updated = 0;
+        try (Stream<LanguagesZone> zones = mongoTemplate.stream(query, LanguagesZone.class)) {
+            BulkOperations bulk = null;
+            int pending = 0;
+            for (LanguagesZone zone : (Iterable<LanguagesZone>) zones::iterator) {
+                ZoneGeometries.updateEnvelope(zone);
+                if (zone.getMinX() == null) {
+                    continue;
+                }
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LanguagesZone.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(zone.getId())), new Update()
+                        .set("minX", zone.getMinX())
+                        .set("minY", zone.getMinY())
+                        .set("maxX", zone.getMaxX())
+                        .set("maxY", zone.getMaxY())
+                        .set("vertexCount", zone.getVertexCount())
+                        .set("geoEnvelope", zone.getGeoEnvelope()));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    updated += pending;
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+            if (bulk != null) {
+                bulk.execute();
+                updated += pending;
+            }
+            logger.info("Stored envelopes of {} languages zones", updated);
+            mongoTemplate.save(new Document("_id", MIGRATION_ID)
+                    .append("updated", updated)
+                    .append("completedAt", new Date()), MIGRATIONS_COLLECTION);
+        } catch (Exception e) {
+            // Zones without envelope are only missed by the ENVELOPE and GEO bbox query modes; the application keeps running.
+            logger.error("Envelope migration stopped after {} languages zones", updated, e);
+        }
+    }
+}
@@ -1,62 +1,386 @@
 package languages.map.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import languages.map.dto.BatchBoundingBoxRequest;
 import languages.map.dto.BoundingBoxRequest;
+import languages.map.dto.ZoneIdsRequest;
+import languages.map.dto.ZoneImportResult;
+import languages.map.dto.ZonePatchRequest;
 import languages.map.models.LanguagesZone;
+import languages.map.serializers.ZoneBinaryWriter;
+import languages.map.services.LanguagesZoneImportService;
 import languages.map.services.LanguagesZoneService;
+import languages.map.services.YearPayloadCache;
+import languages.map.services.ZoneDatasetVersions;
+import languages.map.services.ZoneWriter;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RequestMapping("/api")
-@CrossOrigin(origins = {"http://127.0.0.1:8000", "http://localhost:8000"})
+@CrossOrigin(origins = {"http://127.0.0.1:8000", "http://localhost:8000"}, exposedHeaders = HttpHeaders.ETAG)
 @RestController
 public class LanguagesZoneController {
     private static final Logger logger = LoggerFactory.getLogger(LanguagesZoneController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType ZONES_BINARY = MediaType.parseMediaType(ZoneBinaryWriter.MEDIA_TYPE);
+    private static final String DEFAULT_PRECISION = "6";
+    private static final int MAX_BATCH_CHUNKS = 256;
+    private static final int MAX_BULK_IDS = 10_000;
+    private static final TypeReference<List<LanguagesZone>> ZONE_LIST = new TypeReference<>() {
+    };
     private final LanguagesZoneService languagesZoneService;
+    private final ObjectMapper objectMapper;
+    private final ZoneDatasetVersions zoneDatasetVersions;
+    private final YearPayloadCache yearPayloadCache;
+    private final LanguagesZoneImportService languagesZoneImportService;
 
-    public LanguagesZoneController(LanguagesZoneService languagesZoneService) {
+    public LanguagesZoneController(LanguagesZoneService languagesZoneService, ObjectMapper objectMapper,
+                                   ZoneDatasetVersions zoneDatasetVersions, YearPayloadCache yearPayloadCache,
+                                   LanguagesZoneImportService languagesZoneImportService) {
         this.languagesZoneService = languagesZoneService;
+        this.objectMapper = objectMapper;
+        this.zoneDatasetVersions = zoneDatasetVersions;
+        this.yearPayloadCache = yearPayloadCache;
+        this.languagesZoneImportService = languagesZoneImportService;
     }
 
+    /**
+     * Served from {@link YearPayloadCache}: the year is read and serialized once per dataset version.
+     */
     @GetMapping("/all/{year}")
-    public ResponseEntity<List<LanguagesZone>> getLanguagesZone(@PathVariable Integer year){
-        logger.info("Fetching all language zones for year: {}", year);
+    public ResponseEntity<byte[]> getLanguagesZone(
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String etag = zoneDatasetVersions.etag(year, "all");
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         try {
-            List<LanguagesZone> zones = languagesZoneService.getLanguagesZoneByYear(year);
-            logger.info("Retrieved {} zones for year {}", zones.size(), year);  // Changed from debug to info
-            return ResponseEntity.ok().body(zones);
+            YearPayloadCache.Payload payload = yearPayloadCache.getOrBuild(year, "json", () -> {
+                logger.info("Fetching all language zones for year: {}", year);
+                List<LanguagesZone> zones = languagesZoneService.getLanguagesZoneByYear(year);
+                logger.info("Retrieved {} zones for year {}", zones.size(), year);  // Changed from debug to info
+                try {
+                    return objectMapper.writerFor(ZONE_LIST).writeValueAsBytes(zones);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Failed to serialize language zones", e);
+                }
+            });
+            return payload(etag, payload, MediaType.APPLICATION_JSON, acceptEncoding);
         } catch (Exception e) {
             logger.error("Failed to fetch language zones for year: {}", year, e);
             throw e;
         }
     }
 
+    /**
+     * Binary variant of {@link #getLanguagesZone}, chosen when the client accepts {@value ZoneBinaryWriter#MEDIA_TYPE}.
+     *
+     * @param precision decimal digits kept of every coordinate
+     */
+    @GetMapping(value = "/all/{year}", produces = ZoneBinaryWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getLanguagesZoneBinary(
+            @PathVariable Integer year,
+            @RequestParam(defaultValue = DEFAULT_PRECISION) int precision,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        validatePrecision(precision);
+        String etag = zoneDatasetVersions.etag(year, "all", ZoneBinaryWriter.MEDIA_TYPE, precision);
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        try {
+            YearPayloadCache.Payload payload = yearPayloadCache.getOrBuild(year, "binary:" + precision, () -> {
+                logger.info("Fetching all language zones for year {} as binary", year);
+                return encodeBinary(languagesZoneService.getLanguagesZoneByYear(year), precision);
+            });
+            return payload(etag, payload, ZONES_BINARY, acceptEncoding);
+        } catch (Exception e) {
+            logger.error("Failed to fetch language zones for year: {}", year, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Streamed variant of {@link #getLanguagesZone}: zones are written while the Mongo cursor is read.
+     * Responds with a JSON array, or with newline-delimited JSON when the client accepts application/x-ndjson.
+     */
+    @GetMapping(value = "/all/{year}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamLanguagesZone(
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = zoneDatasetVersions.etag(year, "all", isNdjson(accept));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        logger.debug("Streaming all language zones for year: {}", year);
+        return streaming(accept, etag, writer -> languagesZoneService.streamLanguagesZoneByYear(year, writer));
+    }
+
     @PostMapping("/areas/{year}")
     public ResponseEntity<List<LanguagesZone>> getLanguagesZonesRelatedToChunk(
             @RequestBody BoundingBoxRequest boundingBoxRequest,
-            @PathVariable Integer year) {
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        if (boundingBoxRequest.getLeftTopPointLatLon() == null
-                || boundingBoxRequest.getRightBottomPointLatLon() == null
-                || boundingBoxRequest.getLeftTopPointLatLon().length != 2
-                || boundingBoxRequest.getRightBottomPointLatLon().length != 2) {
-            logger.warn("Invalid bounding box coordinates provided");  // Changed to warn
-            throw new IllegalArgumentException("Invalid bounding box coordinates");
+        validateBoundingBox(boundingBoxRequest);
+        String etag = zoneDatasetVersions.etag(year, "areas", etagParameters(boundingBoxRequest));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        try {
+            List<LanguagesZone> zones = languagesZoneService.getLanguagesZone(boundingBoxRequest, year);
+            return ok(etag).body(zones);
+        } catch (Exception e) {
+            logger.error("Failed to fetch language zones for bounding box", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Binary variant of {@link #getLanguagesZonesRelatedToChunk},
+     * chosen when the client accepts {@value ZoneBinaryWriter#MEDIA_TYPE}.
+     *
+     * @param precision decimal digits kept of every coordinate
+     */
+    @PostMapping(value = "/areas/{year}", produces = ZoneBinaryWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getLanguagesZonesRelatedToChunkBinary(
+            @RequestBody BoundingBoxRequest boundingBoxRequest,
+            @PathVariable Integer year,
+            @RequestParam(defaultValue = DEFAULT_PRECISION) int precision,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        validateBoundingBox(boundingBoxRequest);
+        validatePrecision(precision);
+        String etag = zoneDatasetVersions.etag(year, "areas", ZoneBinaryWriter.MEDIA_TYPE, precision,
+                etagParameters(boundingBoxRequest));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
         }
         try {
             List<LanguagesZone> zones = languagesZoneService.getLanguagesZone(boundingBoxRequest, year);
-            return ResponseEntity.ok().body(zones);
+            return binary(etag, zones, precision);
         } catch (Exception e) {
             logger.error("Failed to fetch language zones for bounding box", e);
             throw e;
         }
     }
 
+    /**
+     * @param batchRequest bounding boxes keyed by chunk id
+     * @return zones clipped to every chunk, keyed by chunk id
+     */
+    @PostMapping("/areas/{year}/batch")
+    public ResponseEntity<Map<String, List<LanguagesZone>>> getLanguagesZonesRelatedToChunks(
+            @RequestBody BatchBoundingBoxRequest batchRequest,
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (batchRequest.getChunks() == null || batchRequest.getChunks().isEmpty()
+                || batchRequest.getChunks().size() > MAX_BATCH_CHUNKS) {
+            logger.warn("Invalid number of chunks in batch request");
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_CHUNKS + " chunks");
+        }
+        batchRequest.getChunks().values().forEach(LanguagesZoneController::validateBoundingBox);
+        String etag = zoneDatasetVersions.etag(year, "batch", etagParameters(batchRequest));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        try {
+            Map<String, List<LanguagesZone>> zones = languagesZoneService.getLanguagesZoneBatch(batchRequest, year);
+            return ok(etag).body(zones);
+        } catch (Exception e) {
+            logger.error("Failed to fetch language zones for batch of {} chunks", batchRequest.getChunks().size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Streamed variant of {@link #getLanguagesZonesRelatedToChunk}: each zone is written as soon as it is clipped.
+     * Responds with a JSON array, or with newline-delimited JSON when the client accepts application/x-ndjson.
+     */
+    @PostMapping(value = "/areas/{year}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamLanguagesZonesRelatedToChunk(
+            @RequestBody BoundingBoxRequest boundingBoxRequest,
+            @PathVariable Integer year,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        validateBoundingBox(boundingBoxRequest);
+        String etag = zoneDatasetVersions.etag(year, "areas", isNdjson(accept), etagParameters(boundingBoxRequest));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return streaming(accept, etag,
+                writer -> languagesZoneService.streamLanguagesZone(boundingBoxRequest, year, writer));
+    }
+
+    /**
+     * Compares against the strong tag, so a weak validator never matches.
+     */
+    private static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 is answered before any zone is read or clipped, for POST as well as GET.
+     */
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    private static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+    }
+
+    private static void validatePrecision(int precision) {
+        if (precision < 0 || precision > ZoneBinaryWriter.MAX_PRECISION) {
+            logger.warn("Invalid coordinate precision: {}", precision);
+            throw new IllegalArgumentException("Precision must be between 0 and " + ZoneBinaryWriter.MAX_PRECISION);
+        }
+    }
+
+    private static ResponseEntity<byte[]> binary(String etag, List<LanguagesZone> zones, int precision) {
+        return ok(etag)
+                .contentType(ZONES_BINARY)
+                .body(encodeBinary(zones, precision));
+    }
+
+    private static byte[] encodeBinary(List<LanguagesZone> zones, int precision) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            new ZoneBinaryWriter(out, precision).writeAll(zones);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the pre-compressed bytes when the client accepts gzip; either way the cached array is the body.
+     */
+    private static ResponseEntity<byte[]> payload(String etag, YearPayloadCache.Payload payload,
+                                                  MediaType contentType, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ok(etag)
+                .contentType(contentType)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.raw());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean rejected = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            if ((name.equalsIgnoreCase("gzip") || name.equals("*")) && !rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object[] etagParameters(BoundingBoxRequest boundingBoxRequest) {
+        return new Object[]{
+                boundingBoxRequest.getLeftTopPointLatLon(),
+                boundingBoxRequest.getRightBottomPointLatLon(),
+                boundingBoxRequest.getZoom(),
+                boundingBoxRequest.getTolerance()
+        };
+    }
+
+    private static Object[] etagParameters(BatchBoundingBoxRequest batchRequest) {
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(batchRequest.getZoom());
+        parameters.add(batchRequest.getTolerance());
+        batchRequest.getChunks().forEach((chunkId, boundingBoxRequest) -> {
+            parameters.add(chunkId);
+            parameters.add(etagParameters(boundingBoxRequest));
+        });
+        return parameters.toArray();
+    }
+
+    static void validateBoundingBox(BoundingBoxRequest boundingBoxRequest) {
+        if (boundingBoxRequest == null
+                || boundingBoxRequest.getLeftTopPointLatLon() == null
+                || boundingBoxRequest.getRightBottomPointLatLon() == null
+                || boundingBoxRequest.getLeftTopPointLatLon().length != 2
+                || boundingBoxRequest.getRightBottomPointLatLon().length != 2) {
+            logger.warn("Invalid bounding box coordinates provided");  // Changed to warn
+            throw new IllegalArgumentException("Invalid bounding box coordinates");
+        }
+    }
+
+    private static boolean isNdjson(String accept) {
+        return accept != null && accept.contains(NDJSON.toString());
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String accept, String etag, ZoneSource source) {
+        boolean ndjson = isNdjson(accept);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequence = openSequence(outputStream, ndjson)) {
+                source.writeTo(sequence::write);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to stream language zones", e);
+                throw e;
+            }
+        };
+        return ok(etag)
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private SequenceWriter openSequence(OutputStream outputStream, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(LanguagesZone.class);
+        return ndjson
+                ? writer.withRootValueSeparator("\n").writeValues(outputStream)
+                : writer.writeValuesAsArray(outputStream);
+    }
+
+    @FunctionalInterface
+    private interface ZoneSource {
+        void writeTo(ZoneWriter writer) throws IOException;
+    }
+
     @PostMapping("/area")
     public ResponseEntity<LanguagesZone> createLanguageZone(@RequestBody LanguagesZone languagesZone){
         try {
@@ -68,6 +392,24 @@ public class LanguagesZoneController {
         }
     }
 
+    /**
+     * Imports a GeoJSON FeatureCollection into the year; the body is parsed while it is read.
+     *
+     * @param body FeatureCollection of Polygon and MultiPolygon features
+     * @return counts of imported and failed features, with the reason for each failure
+     */
+    @PostMapping(value = "/areas/{year}/import",
+            consumes = {"application/geo+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ZoneImportResult> importLanguageZones(@PathVariable Integer year, InputStream body)
+            throws IOException {
+        try {
+            return ResponseEntity.ok().body(languagesZoneImportService.importZones(body, year));
+        } catch (Exception e) {
+            logger.error("Failed to import language zones for year: {}", year, e);
+            throw e;
+        }
+    }
+
     @PutMapping("/area/{area_id}")
     public ResponseEntity<LanguagesZone> updateLanguagesZone(
             @PathVariable ObjectId area_id,
@@ -104,5 +446,74 @@ public class LanguagesZoneController {
                     .body("Failed to delete all language zones");
         }
     }
-}
 
+    /**
+     * Deletes zones by id without sending their bodies.
+     *
+     * @return number of deleted zones
+     */
+    @DeleteMapping("/areas")
+    public ResponseEntity<Map<String, Long>> deleteLanguageZones(@RequestBody ZoneIdsRequest idsRequest) {
+        List<ObjectId> ids = parseIds(idsRequest.getIds());
+        try {
+            return ResponseEntity.ok().body(Map.of("deleted", languagesZoneService.deleteLanguageZones(ids)));
+        } catch (Exception e) {
+            logger.error("Failed to delete {} language zones", ids.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of deleted zones
+     */
+    @DeleteMapping("/areas/{year}")
+    public ResponseEntity<Map<String, Long>> deleteLanguageZonesByYear(@PathVariable Integer year) {
+        try {
+            return ResponseEntity.ok().body(Map.of("deleted", languagesZoneService.deleteLanguageZonesByYear(year)));
+        } catch (Exception e) {
+            logger.error("Failed to delete language zones for year: {}", year, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sets name, color, intensity or year of many zones in one update.
+     *
+     * @return number of modified zones
+     */
+    @PatchMapping("/areas")
+    public ResponseEntity<Map<String, Long>> patchLanguageZones(@RequestBody ZonePatchRequest patchRequest) {
+        List<ObjectId> ids = parseIds(patchRequest.getIds());
+        if (patchRequest.isEmpty()) {
+            logger.warn("Patch request without any field to set");
+            throw new IllegalArgumentException("Patch must set at least one of name, color, intensity or year");
+        }
+        if (patchRequest.getColor() != null && patchRequest.getColor().length != 3) {
+            logger.warn("Invalid color in patch request");
+            throw new IllegalArgumentException("Color must have 3 components");
+        }
+        try {
+            long modified = languagesZoneService.patchLanguageZones(ids, patchRequest);
+            return ResponseEntity.ok().body(Map.of("modified", modified));
+        } catch (Exception e) {
+            logger.error("Failed to patch {} language zones", ids.size(), e);
+            throw e;
+        }
+    }
+
+    private static List<ObjectId> parseIds(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BULK_IDS) {
+            logger.warn("Invalid number of ids in bulk request");
+            throw new IllegalArgumentException("Bulk request must contain between 1 and " + MAX_BULK_IDS + " ids");
+        }
+        List<ObjectId> parsed = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (id == null || !ObjectId.isValid(id)) {
+                logger.warn("Invalid id in bulk request: {}", id);
+                throw new IllegalArgumentException("Invalid id: " + id);
+            }
+            parsed.add(new ObjectId(id));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,66 @@
+package languages.map.controllers;
+
+import languages.map.dto.BoundingBoxRequest;
+import languages.map.models.Chunk;
+import languages.map.models.LanguagesZone;
+import languages.map.services.ReactiveChunkService;
+import languages.map.services.ReactiveLanguagesZoneService;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variants of the zone and chunk read endpoints under {@code /api/reactive}, enabled with
+ * {@code map.reactive.enabled=true} so they can be load-tested next to the blocking ones.
+ * The request thread is released while Mongo is read; with {@code Accept: application/x-ndjson}
+ * zones are written one by one as the client consumes them, otherwise collected into a JSON array.
+ */
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = {"http://127.0.0.1:8000", "http://localhost:8000"})
+@RestController
+@ConditionalOnProperty(name = "map.reactive.enabled", havingValue = "true")
+public class ReactiveController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveController.class);
+    private final ReactiveLanguagesZoneService reactiveLanguagesZoneService;
+    private final ReactiveChunkService reactiveChunkService;
+
+    public ReactiveController(ReactiveLanguagesZoneService reactiveLanguagesZoneService,
+                              ReactiveChunkService reactiveChunkService) {
+        this.reactiveLanguagesZoneService = reactiveLanguagesZoneService;
+        this.reactiveChunkService = reactiveChunkService;
+    }
+
+    @GetMapping("/all/{year}")
+    public Flux<LanguagesZone> getLanguagesZone(@PathVariable Integer year) {
+        return reactiveLanguagesZoneService.getLanguagesZoneByYear(year)
+                .doOnError(e -> logger.error("Failed to fetch language zones for year: {}", year, e));
+    }
+
+    @PostMapping("/areas/{year}")
+    public Flux<LanguagesZone> getLanguagesZonesRelatedToChunk(
+            @RequestBody BoundingBoxRequest boundingBoxRequest,
+            @PathVariable Integer year) {
+        LanguagesZoneController.validateBoundingBox(boundingBoxRequest);
+        return reactiveLanguagesZoneService.getLanguagesZone(boundingBoxRequest, year)
+                .doOnError(e -> logger.error("Failed to fetch language zones for bounding box", e));
+    }
+
+    @GetMapping("/chunks")
+    public Flux<Chunk> getChunks() {
+        return reactiveChunkService.getChunks()
+                .doOnError(e -> logger.error("Failed to fetch chunks", e));
+    }
+
+    @GetMapping("/chunks/{chunk_id}")
+    public Mono<ResponseEntity<Chunk>> getChunk(@PathVariable ObjectId chunk_id) {
+        return reactiveChunkService.getChunk(chunk_id)
+                .map(chunk -> ResponseEntity.ok().body(chunk))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null)));
+    }
+}
@@ -0,0 +1,53 @@
+package languages.map.controllers;
+
+import languages.map.geometry.TileMath;
+import languages.map.services.VectorTileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://127.0.0.1:8000", "http://localhost:8000"})
+@RestController
+public class TileController {
+    private static final Logger logger = LoggerFactory.getLogger(TileController.class);
+    public static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+    private final VectorTileService vectorTileService;
+
+    public TileController(VectorTileService vectorTileService) {
+        this.vectorTileService = vectorTileService;
+    }
+
+    /**
+     * @return Mapbox Vector Tile with one "zones" layer, 204 when no zone reaches the tile
+     */
+    @GetMapping("/tiles/{year}/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(@PathVariable Integer year,
+                                          @PathVariable int z,
+                                          @PathVariable int x,
+                                          @PathVariable int y) {
+        if (!TileMath.isValidTile(z, x, y)) {
+            logger.warn("Invalid tile requested: {}/{}/{}", z, x, y);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            byte[] tile = vectorTileService.getTile(year, z, x, y);
+            CacheControl cacheControl = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+            if (tile.length == 0) {
+                return ResponseEntity.noContent().cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MVT)
+                    .cacheControl(cacheControl)
+                    .body(tile);
+        } catch (Exception e) {
+            logger.error("Failed to render tile {}/{}/{}/{}", year, z, x, y, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package languages.map.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class BatchBoundingBoxRequest {
+    /**
+     * Bounding boxes keyed by the client's chunk id; zoom and tolerance of the boxes are ignored.
+     */
+    private Map<String, BoundingBoxRequest> chunks;
+    private Integer zoom;
+    private Double tolerance;
+}
@@ -9,5 +9,13 @@ import lombok.Setter;
 public class BoundingBoxRequest {
     private double[] leftTopPointLatLon;
     private double[] rightBottomPointLatLon;
+    /**
+     * Optional map zoom level, picks a simplified geometry level when no tolerance is given.
+     */
+    private Integer zoom;
+    /**
+     * Optional simplification tolerance in degrees, 0 for full resolution.
+     */
+    private Double tolerance;
 }
 
@@ -0,0 +1,15 @@
+package languages.map.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ZoneIdsRequest {
+    /**
+     * Hex ObjectIds of the zones.
+     */
+    private List<String> ids;
+}
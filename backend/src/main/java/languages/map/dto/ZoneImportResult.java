@@ -0,0 +1,30 @@
+package languages.map.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a GeoJSON import; features that were not imported are listed with the reason.
+ */
+@Getter
+@Setter
+public class ZoneImportResult {
+    private Integer year;
+    private int features;
+    private int imported;
+    private int failed;
+    /**
+     * Up to the first thousand rejected features; {@code failed} counts all of them.
+     */
+    private List<FeatureError> errors = new ArrayList<>();
+
+    /**
+     * @param index position of the feature in the collection
+     * @param name  {@code name} property of the feature, if it got that far
+     */
+    public record FeatureError(int index, String name, String message) {
+    }
+}
@@ -0,0 +1,26 @@
+package languages.map.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Metadata set on many zones at once; fields left {@code null} keep their stored value and geometry is never touched.
+ */
+@Getter
+@Setter
+public class ZonePatchRequest {
+    /**
+     * Hex ObjectIds of the zones.
+     */
+    private List<String> ids;
+    private String name;
+    private Integer[] color;
+    private Double intensity;
+    private Integer year;
+
+    public boolean isEmpty() {
+        return name == null && color == null && intensity == null && year == null;
+    }
+}
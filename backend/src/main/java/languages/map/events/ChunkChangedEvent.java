@@ -0,0 +1,13 @@
+package languages.map.events;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Published after a chunk was written or deleted, locally by {@link languages.map.services.ChunkService}
+ * or for writes of other instances by {@link languages.map.services.ZoneChangeStreamListener}.
+ *
+ * @param id      id of the chunk
+ * @param deleted whether the chunk is gone
+ */
+public record ChunkChangedEvent(ObjectId id, boolean deleted) {
+}
@@ -0,0 +1,65 @@
+package languages.map.events;
+
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Published by {@link languages.map.services.LanguagesZoneService} after every zone write,
+ * so in-process caches and indexes can follow the repository without polling it.
+ *
+ * @param operation    what happened to the zone
+ * @param id           id of the zone, {@code null} for {@link Operation#CLEARED} and {@link Operation#RELOADED}
+ * @param year         year the zone belongs to after the write, {@code null} when unknown
+ * @param previousYear year the zone belonged to before an update, {@code null} when unknown
+ * @param zone         saved zone body, {@code null} for deletes
+ * @param previousEnvelope extent of the zone before an update or delete, {@code null} when unknown
+ */
+public record LanguagesZoneChangedEvent(Operation operation,
+                                        ObjectId id,
+                                        Integer year,
+                                        Integer previousYear,
+                                        LanguagesZone zone,
+                                        Envelope previousEnvelope) {
+
+    public enum Operation {
+        SAVED,
+        UPDATED,
+        DELETED,
+        CLEARED,
+        /**
+         * Many zones of the year were written at once, e.g. by an import; listeners drop all they hold of the year.
+         */
+        RELOADED
+    }
+
+    public static LanguagesZoneChangedEvent saved(LanguagesZone zone) {
+        return new LanguagesZoneChangedEvent(Operation.SAVED, zone.getId(), zone.getYear(), null, zone, null);
+    }
+
+    public static LanguagesZoneChangedEvent updated(LanguagesZone zone, Integer previousYear) {
+        return updated(zone, previousYear, null);
+    }
+
+    public static LanguagesZoneChangedEvent updated(LanguagesZone zone, Integer previousYear,
+                                                    Envelope previousEnvelope) {
+        return new LanguagesZoneChangedEvent(Operation.UPDATED, zone.getId(), zone.getYear(), previousYear, zone,
+                previousEnvelope);
+    }
+
+    public static LanguagesZoneChangedEvent deleted(ObjectId id, Integer year) {
+        return deleted(id, year, null);
+    }
+
+    public static LanguagesZoneChangedEvent deleted(ObjectId id, Integer year, Envelope previousEnvelope) {
+        return new LanguagesZoneChangedEvent(Operation.DELETED, id, year, null, null, previousEnvelope);
+    }
+
+    public static LanguagesZoneChangedEvent reloaded(Integer year) {
+        return new LanguagesZoneChangedEvent(Operation.RELOADED, null, year, null, null, null);
+    }
+
+    public static LanguagesZoneChangedEvent cleared() {
+        return new LanguagesZoneChangedEvent(Operation.CLEARED, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,25 @@
+package languages.map.events;
+
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+
+/**
+ * Published right before many zones are written at once, which caches only learn about as one
+ * {@link LanguagesZoneChangedEvent.Operation#RELOADED} of the year afterwards. Lets
+ * {@link languages.map.services.ZoneChangeStreamListener} recognise the change stream echoes of the single zones.
+ *
+ * @param ids     zones about to be written
+ * @param version version the zones are written with, {@code null} when it differs per zone or for deletes
+ * @param deleted whether the zones are deleted
+ */
+public record ZoneBulkWriteEvent(Collection<ObjectId> ids, Long version, boolean deleted) {
+
+    public static ZoneBulkWriteEvent written(Collection<ObjectId> ids, Long version) {
+        return new ZoneBulkWriteEvent(ids, version, false);
+    }
+
+    public static ZoneBulkWriteEvent deleted(Collection<ObjectId> ids) {
+        return new ZoneBulkWriteEvent(ids, null, true);
+    }
+}
@@ -0,0 +1,32 @@
+package languages.map.geometry;
+
+/**
+ * Maps map zoom levels to simplification tolerances in degrees.
+ */
+public final class LevelOfDetail {
+    private static final int TILE_SIZE_PIXELS = 256;
+
+    private LevelOfDetail() {
+    }
+
+    /**
+     * @param zoom web map zoom level
+     * @return width of one screen pixel in degrees at that zoom; vertices closer than that are not visible
+     */
+    public static double toleranceForZoom(int zoom) {
+        return 360.0 / (TILE_SIZE_PIXELS * Math.pow(2, Math.max(0, zoom)));
+    }
+
+    /**
+     * @return explicit tolerance when given, else the zoom tolerance, else 0 (full resolution)
+     */
+    public static double tolerance(Integer zoom, Double tolerance) {
+        if (tolerance != null && tolerance >= 0) {
+            return tolerance;
+        }
+        if (zoom != null) {
+            return toleranceForZoom(zoom);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package languages.map.geometry;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+
+import java.util.List;
+
+/**
+ * Clips polygonal geometries to an axis-aligned rectangle.
+ * Envelope checks settle the common cases (fully inside, fully outside) without any overlay;
+ * only geometries crossing the rectangle border go through OverlayNG.
+ */
+public final class RectangleClipper {
+    /**
+     * Fixed precision of clipped output, 1e-7 degrees is about a centimetre.
+     */
+    private static final PrecisionModel PRECISION = new PrecisionModel(1e7);
+
+    private final Envelope rectangle;
+    private final Geometry rectangleGeometry;
+
+    public RectangleClipper(Envelope rectangle) {
+        this.rectangle = rectangle;
+        this.rectangleGeometry = ZoneGeometries.FACTORY.toGeometry(rectangle);
+    }
+
+    public Envelope getRectangle() {
+        return rectangle;
+    }
+
+    /**
+     * @param geometry polygonal geometry to clip
+     * @return polygons of the geometry inside the rectangle; the geometry's own polygons when it lies
+     * fully inside, an empty list when it is disjoint
+     */
+    @SuppressWarnings("unchecked")
+    public List<Polygon> clip(Geometry geometry) {
+        Envelope envelope = geometry.getEnvelopeInternal();
+        if (!rectangle.intersects(envelope)) {
+            return List.of();
+        }
+        if (rectangle.covers(envelope)) {
+            return PolygonExtracter.getPolygons(geometry);
+        }
+        Geometry clipped = OverlayNG.overlay(geometry, rectangleGeometry, OverlayNG.INTERSECTION, PRECISION);
+        return PolygonExtracter.getPolygons(clipped);
+    }
+}
@@ -0,0 +1,100 @@
+package languages.map.geometry;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * XYZ (Web Mercator) tile arithmetic.
+ * Zones store latitude first (see {@link languages.map.dto.BoundingBoxRequest}),
+ * so envelopes returned here carry latitude on x and longitude on y.
+ */
+public final class TileMath {
+    public static final int MAX_ZOOM = 22;
+    private static final double MAX_LATITUDE = 85.0511287798066;
+
+    private TileMath() {
+    }
+
+    public static boolean isValidTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            return false;
+        }
+        int tiles = 1 << z;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    /**
+     * @return tile bounds, latitude on x and longitude on y
+     */
+    public static Envelope tileEnvelope(int z, int x, int y) {
+        double tiles = 1 << z;
+        double minLon = x / tiles * 360.0 - 180.0;
+        double maxLon = (x + 1) / tiles * 360.0 - 180.0;
+        double maxLat = tileLatitude(y, tiles);
+        double minLat = tileLatitude(y + 1, tiles);
+        return new Envelope(minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * @param buffer margin in tile units of an {@code extent}-wide tile
+     * @return tile bounds grown by the margin on every side
+     */
+    public static Envelope bufferedTileEnvelope(int z, int x, int y, int extent, int buffer) {
+        Envelope envelope = tileEnvelope(z, x, y);
+        double fraction = (double) buffer / extent;
+        envelope.expandBy(envelope.getWidth() * fraction, envelope.getHeight() * fraction);
+        return envelope;
+    }
+
+    /**
+     * @return column of the zoom {@code z} tile containing the longitude, clamped to the grid
+     */
+    public static int tileColumn(double longitude, int z) {
+        int tiles = 1 << z;
+        return clampToGrid((int) Math.floor((longitude + 180.0) / 360.0 * tiles), tiles);
+    }
+
+    /**
+     * @return row of the zoom {@code z} tile containing the latitude, clamped to the grid
+     */
+    public static int tileRow(double latitude, int z) {
+        int tiles = 1 << z;
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(clamped));
+        double mercator = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return clampToGrid((int) Math.floor(mercator * tiles), tiles);
+    }
+
+    private static int clampToGrid(int index, int tiles) {
+        return Math.max(0, Math.min(tiles - 1, index));
+    }
+
+    private static double tileLatitude(double y, double tiles) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / tiles))));
+    }
+
+    /**
+     * Projects coordinates into the integer grid of one tile.
+     */
+    public static final class Projection {
+        private final double scale;
+        private final double offsetX;
+        private final double offsetY;
+
+        public Projection(int z, int x, int y, int extent) {
+            this.scale = (double) (1 << z) * extent;
+            this.offsetX = (double) x * extent;
+            this.offsetY = (double) y * extent;
+        }
+
+        public int tileX(double longitude) {
+            return (int) Math.round((longitude + 180.0) / 360.0 * scale - offsetX);
+        }
+
+        public int tileY(double latitude) {
+            double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+            double sin = Math.sin(Math.toRadians(clamped));
+            double mercator = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+            return (int) Math.round(mercator * scale - offsetY);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package languages.map.geometry;
+
+import languages.map.models.LanguagesZone;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonMultiPolygon;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for turning stored zone polygons into JTS structures.
+ * Coordinates are used as stored: x is the first element of a GeoJSON position,
+ * the same axis {@link languages.map.dto.BoundingBoxRequest} puts first.
+ */
+public final class ZoneGeometries {
+    /**
+     * Shared factory; packed sequences keep a ring in one {@code double[]} instead of a Coordinate per vertex.
+     */
+    public static final GeometryFactory FACTORY =
+            new GeometryFactory(new PrecisionModel(), 0, PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+    /**
+     * Poles are single points on the sphere, so rings through them repeat a vertex; 2dsphere rejects those.
+     */
+    private static final double MAX_SPHERE_LAT = 89.9;
+    /**
+     * Widest longitude span of one polygon of {@link #toLonLatShape}, which keeps every polygon within a hemisphere.
+     */
+    private static final double MAX_SPHERE_LON_SPAN = 90;
+    /**
+     * Longitude between vertices along parallels. MongoDB joins vertices by great circles, which stay within
+     * about 0.001 degrees of the parallel at this spacing.
+     */
+    private static final double PARALLEL_STEP = 1;
+    /**
+     * Extent given to envelopes that are a point or a line, which are no valid polygons.
+     */
+    private static final double MIN_SPHERE_EXTENT = 1e-6;
+
+    private ZoneGeometries() {
+    }
+
+    /**
+     * @param polygon stored polygon, only its outer ring is used
+     * @return JTS polygon, or null when the ring has fewer than three distinct points
+     */
+    public static Polygon toPolygon(GeoJsonPolygon polygon) {
+        List<Point> points = polygon.getPoints();
+        int size = points.size();
+        if (size == 0) {
+            return null;
+        }
+        boolean closed = points.get(0).equals(points.get(size - 1));
+        int ringSize = closed ? size : size + 1;
+        if (ringSize < 4) {
+            return null;
+        }
+
+        double[] ordinates = new double[ringSize * 2];
+        for (int i = 0; i < size; i++) {
+            Point point = points.get(i);
+            ordinates[2 * i] = point.getX();
+            ordinates[2 * i + 1] = point.getY();
+        }
+        if (!closed) {
+            ordinates[2 * size] = ordinates[0];
+            ordinates[2 * size + 1] = ordinates[1];
+        }
+
+        CoordinateSequence ring = PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(ordinates, 2);
+        return FACTORY.createPolygon(ring);
+    }
+
+    /**
+     * @param zone zone to measure
+     * @return envelope of all outer rings of the zone, empty when the zone has no points
+     */
+    public static Envelope envelopeOf(LanguagesZone zone) {
+        return envelopeOf(zone.getCoords());
+    }
+
+    public static Envelope envelopeOf(List<GeoJsonPolygon> polygons) {
+        Envelope envelope = new Envelope();
+        if (polygons == null) {
+            return envelope;
+        }
+        for (GeoJsonPolygon polygon : polygons) {
+            envelope.expandToInclude(envelopeOf(polygon));
+        }
+        return envelope;
+    }
+
+    /**
+     * Stores the envelope and vertex count of the zone's current coords on the zone itself;
+     * a zone without points gets null envelope fields.
+     */
+    public static void updateEnvelope(LanguagesZone zone) {
+        Envelope envelope = envelopeOf(zone);
+        boolean empty = envelope.isNull();
+        zone.setMinX(empty ? null : envelope.getMinX());
+        zone.setMinY(empty ? null : envelope.getMinY());
+        zone.setMaxX(empty ? null : envelope.getMaxX());
+        zone.setMaxY(empty ? null : envelope.getMaxY());
+        zone.setVertexCount(vertexCount(zone.getCoords()));
+        zone.setGeoEnvelope(empty ? null : toLonLatShape(envelope));
+    }
+
+    /**
+     * Turns a lat/lon rectangle into a shape MongoDB's 2dsphere index accepts: GeoJSON order is
+     * {@code [lon, lat]}, while zones store latitude first. The rectangle is cut into polygons at most
+     * {@link #MAX_SPHERE_LON_SPAN} wide, with vertices along the parallels so the geodesic edges follow them.
+     *
+     * @param envelope rectangle with latitude on x, as stored
+     * @return the rectangle in {@code [lon, lat]} order, clamped short of the poles
+     */
+    public static GeoJsonMultiPolygon toLonLatShape(Envelope envelope) {
+        double[] lat = sphereRange(envelope.getMinX(), envelope.getMaxX(), MAX_SPHERE_LAT);
+        double[] lon = sphereRange(envelope.getMinY(), envelope.getMaxY(), 180);
+        int pieces = (int) Math.ceil((lon[1] - lon[0]) / MAX_SPHERE_LON_SPAN);
+        double pieceSpan = (lon[1] - lon[0]) / pieces;
+        List<GeoJsonPolygon> polygons = new ArrayList<>(pieces);
+        for (int piece = 0; piece < pieces; piece++) {
+            double west = lon[0] + piece * pieceSpan;
+            double east = piece == pieces - 1 ? lon[1] : west + pieceSpan;
+            polygons.add(lonLatRectangle(west, east, lat[0], lat[1]));
+        }
+        return new GeoJsonMultiPolygon(polygons);
+    }
+
+    /**
+     * Counter-clockwise ring: east along the southern parallel, then west along the northern one.
+     */
+    private static GeoJsonPolygon lonLatRectangle(double west, double east, double south, double north) {
+        int steps = Math.max(1, (int) Math.ceil((east - west) / PARALLEL_STEP));
+        List<Point> points = new ArrayList<>(2 * steps + 3);
+        for (int i = 0; i <= steps; i++) {
+            points.add(new Point(west + (east - west) * i / steps, south));
+        }
+        for (int i = steps; i >= 0; i--) {
+            points.add(new Point(west + (east - west) * i / steps, north));
+        }
+        points.add(points.get(0));
+        return new GeoJsonPolygon(points);
+    }
+
+    /**
+     * @return {@code [min, max]} clamped to {@code ±limit} and at least {@link #MIN_SPHERE_EXTENT} apart
+     */
+    private static double[] sphereRange(double min, double max, double limit) {
+        min = Math.max(-limit, Math.min(limit, min));
+        max = Math.max(-limit, Math.min(limit, max));
+        if (max - min < MIN_SPHERE_EXTENT) {
+            if (min + MIN_SPHERE_EXTENT <= limit) {
+                max = min + MIN_SPHERE_EXTENT;
+            } else {
+                min = max - MIN_SPHERE_EXTENT;
+            }
+        }
+        return new double[]{min, max};
+    }
+
+    public static int vertexCount(List<GeoJsonPolygon> polygons) {
+        int count = 0;
+        if (polygons != null) {
+            for (GeoJsonPolygon polygon : polygons) {
+                count += polygon.getPoints().size();
+            }
+        }
+        return count;
+    }
+
+    public static Envelope envelopeOf(GeoJsonPolygon polygon) {
+        Envelope envelope = new Envelope();
+        for (Point point : polygon.getPoints()) {
+            envelope.expandToInclude(point.getX(), point.getY());
+        }
+        return envelope;
+    }
+}
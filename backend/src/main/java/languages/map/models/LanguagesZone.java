@@ -1,10 +1,13 @@
 package languages.map.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import languages.map.serializers.GeoJsonPolygonListSerializer;
 import lombok.Data;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonMultiPolygon;
 import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -22,4 +25,30 @@ public class LanguagesZone {
     private Double intensity;
     private Integer[] color = new Integer[3];
     private Integer year;
+    /**
+     * Owned by the server, which bumps it on every geometry write; sent to clients but never read from them.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    /**
+     * Envelope of all outer rings and their total vertex count, kept in step with {@code coords} by the service
+     * so candidate zones of a bounding box can be selected from the index alone. Never sent to clients.
+     */
+    @JsonIgnore
+    private Double minX;
+    @JsonIgnore
+    private Double minY;
+    @JsonIgnore
+    private Double maxX;
+    @JsonIgnore
+    private Double maxY;
+    @JsonIgnore
+    private Integer vertexCount;
+    /**
+     * The same envelope as GeoJSON in {@code [lon, lat]} order for the 2dsphere index of the GEO bbox query mode,
+     * see {@link languages.map.geometry.ZoneGeometries#toLonLatShape}. {@code coords} store latitude first, so they
+     * can't be indexed themselves.
+     */
+    @JsonIgnore
+    private GeoJsonMultiPolygon geoEnvelope;
 }
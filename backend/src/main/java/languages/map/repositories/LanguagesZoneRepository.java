@@ -2,16 +2,30 @@ package languages.map.repositories;
 
 import languages.map.models.LanguagesZone;
 import org.bson.types.ObjectId;
-import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface LanguagesZoneRepository extends MongoRepository<LanguagesZone, ObjectId> {
+public interface LanguagesZoneRepository extends MongoRepository<LanguagesZone, ObjectId>, LanguagesZoneRepositoryCustom {
     Optional<List<LanguagesZone>> findAllByYear(Integer year);
-    // Optional<List<LanguagesZone>> findAllByYearAndCoordsWithin(Integer year, GeoJsonPolygon boundingBox);
 
+    /**
+     * Cursor-backed; the stream must be closed.
+     */
+    Stream<LanguagesZone> streamAllByYear(Integer year);
+
+    /**
+     * @return number of deleted zones
+     */
+    long deleteByYear(Integer year);
+
+    /**
+     * @return number of deleted zones
+     */
+    long deleteByIdIn(Collection<ObjectId> ids);
 }
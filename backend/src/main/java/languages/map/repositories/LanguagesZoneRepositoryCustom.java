@@ -0,0 +1,75 @@
+package languages.map.repositories;
+
+import languages.map.dto.ZonePatchRequest;
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Queries of {@link LanguagesZoneRepository} that can't be expressed as derived queries.
+ */
+public interface LanguagesZoneRepositoryCustom {
+    /**
+     * @param year     year of areas
+     * @param envelope area of interest, latitude on x
+     * @return candidate zones of the year whose {@code geoEnvelope} intersects the area on the sphere,
+     * served by the {@code year} + {@code geoEnvelope} 2dsphere index; a superset of the zones overlapping
+     * the area on the plane, zones without {@code geoEnvelope} are not found
+     */
+    List<LanguagesZone> findAllByYearIntersecting(Integer year, Envelope envelope);
+
+    /**
+     * Cursor-backed variant of {@link #findAllByYearIntersecting}; the stream must be closed.
+     */
+    Stream<LanguagesZone> streamAllByYearIntersecting(Integer year, Envelope envelope);
+
+    /**
+     * Selects the ids with a query covered by the {@code year} + envelope index, then loads only those zones.
+     *
+     * @param year     year of areas
+     * @param envelope area of interest
+     * @return zones of the year whose stored envelope overlaps the given one;
+     * zones without envelope fields are not found
+     */
+    List<LanguagesZone> findAllByYearOverlapping(Integer year, Envelope envelope);
+
+    /**
+     * Cursor-backed variant of {@link #findAllByYearOverlapping}; the stream must be closed.
+     */
+    Stream<LanguagesZone> streamAllByYearOverlapping(Integer year, Envelope envelope);
+
+    /**
+     * Inserts the zones with one unordered bulk write, so a failing zone does not stop the others.
+     *
+     * @param zones zones with ids assigned
+     * @return error message by position in {@code zones} of every zone that was not inserted
+     */
+    Map<Integer, String> insertUnordered(List<LanguagesZone> zones);
+
+    /**
+     * @param year year of areas
+     * @return ids of the zones of the year, without loading their bodies
+     */
+    List<ObjectId> findIdsByYear(Integer year);
+
+    /**
+     * @param ids zones to look at
+     * @return distinct years of the existing zones among the ids
+     */
+    List<Integer> findYearsOfIds(Collection<ObjectId> ids);
+
+    /**
+     * Sets the non-null metadata of the patch on all zones in one update, without reading or rewriting their
+     * geometry. Versions are kept, since they only change with the geometry they key.
+     *
+     * @param ids   zones to update
+     * @param patch metadata to set, its ids are ignored
+     * @return number of modified zones
+     */
+    long updateMetadata(Collection<ObjectId> ids, ZonePatchRequest patch);
+}
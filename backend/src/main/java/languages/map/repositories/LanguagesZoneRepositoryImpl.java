@@ -0,0 +1,162 @@
+package languages.map.repositories;
+
+import languages.map.dto.ZonePatchRequest;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class LanguagesZoneRepositoryImpl implements LanguagesZoneRepositoryCustom {
+    /**
+     * Degrees added around the area of a 2dsphere query, more than the stored and queried parallels may bend
+     * away from the plane together, so no zone overlapping the area on the plane is missed.
+     */
+    private static final double SPHERE_QUERY_MARGIN = 0.01;
+    private final MongoTemplate mongoTemplate;
+
+    public LanguagesZoneRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<LanguagesZone> findAllByYearIntersecting(Integer year, Envelope envelope) {
+        return mongoTemplate.find(intersectingQuery(year, envelope), LanguagesZone.class);
+    }
+
+    @Override
+    public Stream<LanguagesZone> streamAllByYearIntersecting(Integer year, Envelope envelope) {
+        return mongoTemplate.stream(intersectingQuery(year, envelope), LanguagesZone.class);
+    }
+
+    @Override
+    public List<LanguagesZone> findAllByYearOverlapping(Integer year, Envelope envelope) {
+        List<Object> ids = findIdsByYearOverlapping(year, envelope);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return mongoTemplate.find(byIdsQuery(ids), LanguagesZone.class);
+    }
+
+    @Override
+    public Stream<LanguagesZone> streamAllByYearOverlapping(Integer year, Envelope envelope) {
+        List<Object> ids = findIdsByYearOverlapping(year, envelope);
+        if (ids.isEmpty()) {
+            return Stream.empty();
+        }
+        return mongoTemplate.stream(byIdsQuery(ids), LanguagesZone.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<LanguagesZone> zones) {
+        if (zones.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LanguagesZone.class)
+                    .insert(zones)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new LinkedHashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    @Override
+    public List<ObjectId> findIdsByYear(Integer year) {
+        Query query = new Query(Criteria.where("year").is(year));
+        query.fields().include("_id");
+        String collection = mongoTemplate.getCollectionName(LanguagesZone.class);
+        return mongoTemplate.find(query, Document.class, collection).stream()
+                .map(document -> document.getObjectId("_id"))
+                .toList();
+    }
+
+    @Override
+    public List<Integer> findYearsOfIds(Collection<ObjectId> ids) {
+        return mongoTemplate.findDistinct(new Query(Criteria.where("_id").in(ids)), "year",
+                LanguagesZone.class, Integer.class);
+    }
+
+    @Override
+    public long updateMetadata(Collection<ObjectId> ids, ZonePatchRequest patch) {
+        Update update = new Update();
+        if (patch.getName() != null) {
+            update.set("name", patch.getName());
+        }
+        if (patch.getColor() != null) {
+            update.set("color", patch.getColor());
+        }
+        if (patch.getIntensity() != null) {
+            update.set("intensity", patch.getIntensity());
+        }
+        if (patch.getYear() != null) {
+            update.set("year", patch.getYear());
+        }
+        return mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)), update, LanguagesZone.class)
+                .getModifiedCount();
+    }
+
+    /**
+     * Filters and projects only fields of the {@code year_envelope} index, so no document is fetched.
+     */
+    private List<Object> findIdsByYearOverlapping(Integer year, Envelope envelope) {
+        Query query = new Query(Criteria.where("year").is(year)
+                .and("minX").lte(envelope.getMaxX())
+                .and("maxX").gte(envelope.getMinX())
+                .and("minY").lte(envelope.getMaxY())
+                .and("maxY").gte(envelope.getMinY()));
+        query.fields().include("_id");
+        String collection = mongoTemplate.getCollectionName(LanguagesZone.class);
+        return mongoTemplate.find(query, Document.class, collection).stream()
+                .map(document -> document.get("_id"))
+                .toList();
+    }
+
+    private static Query byIdsQuery(List<Object> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        includeResponseFields(query);
+        return query;
+    }
+
+    private static Query intersectingQuery(Integer year, Envelope envelope) {
+        Envelope padded = new Envelope(envelope);
+        padded.expandBy(SPHERE_QUERY_MARGIN);
+        Query query = new Query(Criteria.where("year").is(year)
+                .and("geoEnvelope").intersects(ZoneGeometries.toLonLatShape(padded)));
+        includeResponseFields(query);
+        return query;
+    }
+
+    /**
+     * Limits a query to the fields the zone endpoints send back.
+     */
+    private static void includeResponseFields(Query query) {
+        query.fields()
+                .include("id")
+                .include("coords")
+                .include("description")
+                .include("name")
+                .include("intensity")
+                .include("color")
+                .include("year")
+                .include("version");
+    }
+}
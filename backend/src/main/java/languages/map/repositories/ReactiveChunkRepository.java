@@ -0,0 +1,13 @@
+package languages.map.repositories;
+
+import languages.map.models.Chunk;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking counterpart of {@link ChunkRepository}, used by the reactive endpoints.
+ */
+@Repository
+public interface ReactiveChunkRepository extends ReactiveMongoRepository<Chunk, ObjectId> {
+}
@@ -0,0 +1,25 @@
+package languages.map.repositories;
+
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link LanguagesZoneRepository}, used by the reactive endpoints.
+ */
+@Repository
+public interface ReactiveLanguagesZoneRepository extends ReactiveMongoRepository<LanguagesZone, ObjectId> {
+    Flux<LanguagesZone> findAllByYear(Integer year);
+
+    /**
+     * Zones of the year whose stored envelope overlaps the given one, plus zones stored without an envelope,
+     * which the caller filters by clipping. Both branches are served by the {@code year_envelope} index.
+     */
+    @Query("{ 'year': ?0, $or: [ "
+            + "{ 'minX': { $lte: ?2 }, 'maxX': { $gte: ?1 }, 'minY': { $lte: ?4 }, 'maxY': { $gte: ?3 } }, "
+            + "{ 'minX': null } ] }")
+    Flux<LanguagesZone> findAllByYearOverlapping(Integer year, double minX, double maxX, double minY, double maxY);
+}
@@ -0,0 +1,26 @@
+package languages.map.repositories.inmemory;
+
+import languages.map.models.Chunk;
+import languages.map.repositories.ChunkRepository;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * In-memory {@link ChunkRepository} of the {@code inmemory} profile.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryChunkRepository extends InMemoryMongoRepository<Chunk, ObjectId> implements ChunkRepository {
+
+    public InMemoryChunkRepository() {
+        super(Chunk::new, Chunk::getId, Chunk::setId, ObjectId::new);
+    }
+
+    @Override
+    public Optional<Chunk> getChunkById(ObjectId id) {
+        return findById(id);
+    }
+}
@@ -0,0 +1,101 @@
+package languages.map.repositories.inmemory;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Fluent query of {@link InMemoryMongoRepository#findBy}. Results are the matching entities themselves or
+ * interface projections of them; {@link #project} does not trim properties.
+ *
+ * @param <S> type of the matched entities
+ * @param <R> type of the results
+ */
+final class InMemoryFluentQuery<S, R> implements FluentQuery.FetchableFluentQuery<R> {
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+    private final Function<Sort, List<S>> matches;
+    private final Sort sort;
+    private final Class<R> resultType;
+
+    /**
+     * @param matches    matching entities in the given order
+     * @param resultType type of the results, a supertype of the entities or an interface to project them to
+     */
+    InMemoryFluentQuery(Function<Sort, List<S>> matches, Sort sort, Class<R> resultType) {
+        this.matches = matches;
+        this.sort = sort;
+        this.resultType = resultType;
+    }
+
+    @Override
+    public FetchableFluentQuery<R> sortBy(Sort sort) {
+        return new InMemoryFluentQuery<>(matches, this.sort.and(sort), resultType);
+    }
+
+    @Override
+    public <P> FetchableFluentQuery<P> as(Class<P> resultType) {
+        return new InMemoryFluentQuery<>(matches, sort, resultType);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> project(Collection<String> properties) {
+        return this;
+    }
+
+    @Override
+    public R oneValue() {
+        List<R> all = all();
+        if (all.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, all.size());
+        }
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    @Override
+    public R firstValue() {
+        List<R> all = all();
+        return all.isEmpty() ? null : all.get(0);
+    }
+
+    @Override
+    public List<R> all() {
+        return matches.apply(sort).stream().map(this::convert).toList();
+    }
+
+    @Override
+    public Page<R> page(Pageable pageable) {
+        List<R> all = matches.apply(sort.and(pageable.getSort())).stream().map(this::convert).toList();
+        return InMemoryMongoRepository.page(all, pageable);
+    }
+
+    @Override
+    public Stream<R> stream() {
+        return all().stream();
+    }
+
+    @Override
+    public long count() {
+        return matches.apply(Sort.unsorted()).size();
+    }
+
+    @Override
+    public boolean exists() {
+        return count() > 0;
+    }
+
+    private R convert(S entity) {
+        if (resultType.isInstance(entity)) {
+            return resultType.cast(entity);
+        }
+        return PROJECTIONS.createProjection(resultType, entity);
+    }
+}
@@ -0,0 +1,146 @@
+package languages.map.repositories.inmemory;
+
+import languages.map.dto.ZonePatchRequest;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link LanguagesZoneRepository} of the {@code inmemory} profile.
+ * Intersection queries test the zone polygons with JTS on the plane; MongoDB returns the zones whose envelope
+ * intersects on the sphere, a superset that clipping narrows down to the same result.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryLanguagesZoneRepository extends InMemoryMongoRepository<LanguagesZone, ObjectId>
+        implements LanguagesZoneRepository {
+
+    public InMemoryLanguagesZoneRepository() {
+        super(LanguagesZone::new, LanguagesZone::getId, LanguagesZone::setId, ObjectId::new);
+    }
+
+    @Override
+    public Optional<List<LanguagesZone>> findAllByYear(Integer year) {
+        return Optional.of(findAllMatching(zone -> Objects.equals(zone.getYear(), year)));
+    }
+
+    @Override
+    public Stream<LanguagesZone> streamAllByYear(Integer year) {
+        return streamAllMatching(zone -> Objects.equals(zone.getYear(), year));
+    }
+
+    @Override
+    public List<LanguagesZone> findAllByYearIntersecting(Integer year, Envelope envelope) {
+        Geometry box = ZoneGeometries.FACTORY.toGeometry(envelope);
+        return findAllMatching(zone -> Objects.equals(zone.getYear(), year) && intersects(zone, box));
+    }
+
+    @Override
+    public Stream<LanguagesZone> streamAllByYearIntersecting(Integer year, Envelope envelope) {
+        return findAllByYearIntersecting(year, envelope).stream();
+    }
+
+    @Override
+    public List<LanguagesZone> findAllByYearOverlapping(Integer year, Envelope envelope) {
+        return findAllMatching(zone -> Objects.equals(zone.getYear(), year)
+                && zone.getMinX() != null
+                && zone.getMinX() <= envelope.getMaxX() && zone.getMaxX() >= envelope.getMinX()
+                && zone.getMinY() <= envelope.getMaxY() && zone.getMaxY() >= envelope.getMinY());
+    }
+
+    @Override
+    public Stream<LanguagesZone> streamAllByYearOverlapping(Integer year, Envelope envelope) {
+        return findAllByYearOverlapping(year, envelope).stream();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<LanguagesZone> zones) {
+        Map<Integer, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < zones.size(); i++) {
+            try {
+                insert(zones.get(i));
+            } catch (DuplicateKeyException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public long deleteByYear(Integer year) {
+        return removeMatching(zone -> Objects.equals(zone.getYear(), year));
+    }
+
+    @Override
+    public long deleteByIdIn(Collection<ObjectId> ids) {
+        Set<ObjectId> idSet = new HashSet<>(ids);
+        return removeMatching(zone -> idSet.contains(zone.getId()));
+    }
+
+    @Override
+    public List<ObjectId> findIdsByYear(Integer year) {
+        return findAllMatching(zone -> Objects.equals(zone.getYear(), year)).stream()
+                .map(LanguagesZone::getId)
+                .toList();
+    }
+
+    @Override
+    public List<Integer> findYearsOfIds(Collection<ObjectId> ids) {
+        Set<ObjectId> idSet = new HashSet<>(ids);
+        return findAllMatching(zone -> idSet.contains(zone.getId())).stream()
+                .map(LanguagesZone::getYear)
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    public long updateMetadata(Collection<ObjectId> ids, ZonePatchRequest patch) {
+        Set<ObjectId> idSet = new HashSet<>(ids);
+        return updateMatching(zone -> idSet.contains(zone.getId()), zone -> {
+            if (patch.getName() != null) {
+                zone.setName(patch.getName());
+            }
+            if (patch.getColor() != null) {
+                zone.setColor(patch.getColor());
+            }
+            if (patch.getIntensity() != null) {
+                zone.setIntensity(patch.getIntensity());
+            }
+            if (patch.getYear() != null) {
+                zone.setYear(patch.getYear());
+            }
+        });
+    }
+
+    private static boolean intersects(LanguagesZone zone, Geometry box) {
+        if (box == null || zone.getCoords() == null) {
+            return false;
+        }
+        for (GeoJsonPolygon polygon : zone.getCoords()) {
+            Polygon converted = ZoneGeometries.toPolygon(polygon);
+            if (converted != null && converted.getEnvelopeInternal().intersects(box.getEnvelopeInternal())
+                    && converted.intersects(box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,367 @@
+package languages.map.repositories.inmemory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link MongoRepository} over a concurrent sorted map, for running the application without MongoDB.
+ * Entities are copied on the way in and out, so callers get detached instances as they would from the driver,
+ * and results come in id order, which for ObjectIds is insertion order like MongoDB's natural order.
+ * Sorts compare property values with nulls lowest, as MongoDB does for missing fields. Examples match non-null
+ * probe properties with their matcher; nested objects and arrays are compared as a whole.
+ */
+public abstract class InMemoryMongoRepository<T, ID extends Comparable<ID>> implements MongoRepository<T, ID> {
+    private final ConcurrentNavigableMap<ID, T> entities = new ConcurrentSkipListMap<>();
+    private final Supplier<T> factory;
+    private final Function<T, ID> idGetter;
+    private final BiConsumer<T, ID> idSetter;
+    private final Supplier<ID> idGenerator;
+
+    protected InMemoryMongoRepository(Supplier<T> factory, Function<T, ID> idGetter, BiConsumer<T, ID> idSetter,
+                                      Supplier<ID> idGenerator) {
+        this.factory = factory;
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * @return detached copies of the stored entities matching the filter, in id order
+     */
+    protected List<T> findAllMatching(Predicate<T> filter) {
+        List<T> result = new ArrayList<>();
+        for (T entity : entities.values()) {
+            if (filter.test(entity)) {
+                result.add(copy(entity));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stream over a snapshot, closing it is not required but harmless.
+     */
+    protected Stream<T> streamAllMatching(Predicate<T> filter) {
+        return findAllMatching(filter).stream();
+    }
+
+    /**
+     * @return number of removed entities
+     */
+    protected long removeMatching(Predicate<T> filter) {
+        long removed = 0;
+        for (T entity : entities.values()) {
+            if (filter.test(entity) && entities.remove(idGetter.apply(entity), entity)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Applies the change to a copy of every matching entity and stores the copy.
+     *
+     * @return number of updated entities
+     */
+    protected long updateMatching(Predicate<T> filter, Consumer<T> change) {
+        long updated = 0;
+        for (T entity : entities.values()) {
+            if (filter.test(entity)) {
+                T changed = copy(entity);
+                change.accept(changed);
+                if (entities.replace(idGetter.apply(entity), entity, changed)) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    private T copy(T entity) {
+        T copy = factory.get();
+        BeanUtils.copyProperties(entity, copy);
+        return copy;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        if (idGetter.apply(entity) == null) {
+            idSetter.accept(entity, idGenerator.get());
+        }
+        entities.put(idGetter.apply(entity), copy(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        ID id = idGetter.apply(entity);
+        if (id != null && entities.containsKey(id)) {
+            throw new DuplicateKeyException("Duplicate id " + id);
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return Optional.ofNullable(entities.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return entities.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return findAllMatching(entity -> true);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<T> result = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(result::add));
+        return result;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sorted(findAll(), sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return page(sorted(findAll(), pageable.getSort()), pageable);
+    }
+
+    @Override
+    public long count() {
+        return entities.size();
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        entities.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        ID id = idGetter.apply(entity);
+        if (id != null) {
+            entities.remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends ID> ids) {
+        ids.forEach(entities::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        entities.clear();
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> matches = findAll(example);
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return (List<S>) (List<?>) sorted(findAllMatching(matching(example)), sort);
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAllMatching(matching(example)).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        Predicate<T> filter = matching(example);
+        return entities.values().stream().anyMatch(filter);
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example,
+                                     Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(
+                new InMemoryFluentQuery<>(sort -> findAll(example, sort), Sort.unsorted(), example.getProbeType()));
+    }
+
+    /**
+     * @return the list sorted in place by the orders of the sort, left as it is when unsorted
+     */
+    static <E> List<E> sorted(List<E> list, Sort sort) {
+        Comparator<E> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<E> byProperty = (a, b) -> compare(read(a, order.getProperty()), read(b, order.getProperty()),
+                    order);
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+        if (comparator != null) {
+            list.sort(comparator);
+        }
+        return list;
+    }
+
+    static <E> Page<E> page(List<E> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b, Sort.Order order) {
+        if (a == null || b == null) {
+            if (a == b) {
+                return 0;
+            }
+            return switch (order.getNullHandling()) {
+                case NULLS_FIRST -> a == null ? -1 : 1;
+                case NULLS_LAST -> a == null ? 1 : -1;
+                case NATIVE -> (a == null ? -1 : 1) * (order.isAscending() ? 1 : -1);
+            };
+        }
+        int result;
+        if (order.isIgnoreCase() && a instanceof String first && b instanceof String second) {
+            result = first.compareToIgnoreCase(second);
+        } else if (a instanceof Comparable comparable) {
+            result = comparable.compareTo(b);
+        } else {
+            throw new IllegalArgumentException("Can't sort by " + order.getProperty() + " of type "
+                    + a.getClass().getSimpleName() + " in memory");
+        }
+        return order.isAscending() ? result : -result;
+    }
+
+    /**
+     * @return value of a property path such as {@code center.x}, null when it or an object on the way is null
+     */
+    private static Object read(Object entity, String path) {
+        try {
+            return new BeanWrapperImpl(entity).getPropertyValue("_id".equals(path) ? "id" : path);
+        } catch (NullValueInNestedPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return filter matching the non-null properties of the probe, and its null ones when the matcher includes
+     * nulls, combined as the matcher's all or any mode asks
+     */
+    private Predicate<T> matching(Example<?> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        BeanWrapper probe = new BeanWrapperImpl(example.getProbe());
+        List<Predicate<T>> conditions = new ArrayList<>();
+        for (PropertyDescriptor descriptor : probe.getPropertyDescriptors()) {
+            String path = descriptor.getName();
+            if (descriptor.getReadMethod() == null || "class".equals(path) || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(path)))
+                    .orElse(null);
+            if (value == null) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(entity -> read(entity, path) == null);
+                }
+            } else if (value instanceof String text) {
+                Predicate<String> matches = stringMatcher(text, accessor.getStringMatcherForPath(path),
+                        accessor.isIgnoreCaseForPath(path));
+                conditions.add(entity -> read(entity, path) instanceof String actual && matches.test(actual));
+            } else {
+                conditions.add(entity -> Objects.deepEquals(value, read(entity, path)));
+            }
+        }
+        Class<?> probeType = example.getProbeType();
+        return entity -> probeType.isInstance(entity) && (conditions.isEmpty() || (matcher.isAllMatching()
+                ? conditions.stream().allMatch(condition -> condition.test(entity))
+                : conditions.stream().anyMatch(condition -> condition.test(entity))));
+    }
+
+    private static Predicate<String> stringMatcher(String probe, ExampleMatcher.StringMatcher mode,
+                                                   boolean ignoreCase) {
+        if (mode == ExampleMatcher.StringMatcher.REGEX) {
+            Pattern pattern = Pattern.compile(probe, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+            return actual -> pattern.matcher(actual).find();
+        }
+        String expected = ignoreCase ? probe.toLowerCase() : probe;
+        return value -> {
+            String actual = ignoreCase ? value.toLowerCase() : value;
+            return switch (mode) {
+                case STARTING -> actual.startsWith(expected);
+                case ENDING -> actual.endsWith(expected);
+                case CONTAINING -> actual.contains(expected);
+                default -> actual.equals(expected);
+            };
+        };
+    }
+}
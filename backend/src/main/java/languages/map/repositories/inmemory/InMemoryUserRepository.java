@@ -0,0 +1,19 @@
+package languages.map.repositories.inmemory;
+
+import languages.map.models.User;
+import languages.map.repositories.UserRepository;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+/**
+ * In-memory {@link UserRepository} of the {@code inmemory} profile.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryMongoRepository<User, ObjectId> implements UserRepository {
+
+    public InMemoryUserRepository() {
+        super(User::new, User::getId, User::setId, ObjectId::new);
+    }
+}
@@ -0,0 +1,162 @@
+package languages.map.serializers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import languages.map.models.LanguagesZone;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a GeoJSON FeatureCollection of Polygon and MultiPolygon features, such as {@code client/custom.geo.json},
+ * into zones of one year. Positions are swapped from GeoJSON's longitude-first order to the latitude-first order
+ * zones are stored in; only outer rings are kept. Zones are returned without id.
+ * <p>
+ * {@link #stream} reads the collection with the streaming parser, holding one feature in memory at a time.
+ */
+public final class GeoJsonFeatureReader {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GeoJsonFeatureReader() {
+    }
+
+    /**
+     * @param in   FeatureCollection document, not closed
+     * @param year year given to every zone
+     * @return one zone per feature with a polygonal geometry, named after its {@code name} property
+     */
+    public static List<LanguagesZone> read(InputStream in, Integer year) throws IOException {
+        List<LanguagesZone> zones = new ArrayList<>();
+        stream(in, year, (index, zone, error) -> {
+            if (zone != null) {
+                zones.add(zone);
+            }
+        });
+        return zones;
+    }
+
+    /**
+     * Hands the features to the handler in document order. Members of the collection other than
+     * {@code features} are skipped; a feature that can't be turned into a zone is reported, not thrown.
+     *
+     * @param in      FeatureCollection document, not closed
+     * @param year    year given to every zone
+     * @param handler receives every feature
+     * @throws IOException              when the document is not well-formed JSON
+     * @throws IllegalArgumentException when the document is not an object with a {@code features} array
+     */
+    public static void stream(InputStream in, Integer year, FeatureHandler handler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a GeoJSON FeatureCollection object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!field.equals("features")) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Expected features to be an array");
+                }
+                int index = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode feature = parser.readValueAsTree();
+                    LanguagesZone zone;
+                    try {
+                        zone = toZone(feature, year);
+                    } catch (IllegalArgumentException e) {
+                        handler.accept(index++, null, e.getMessage());
+                        continue;
+                    }
+                    handler.accept(index++, zone, null);
+                }
+                return;
+            }
+            throw new IllegalArgumentException("Expected a features array");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the feature has no usable polygon or a position is malformed
+     */
+    private static LanguagesZone toZone(JsonNode feature, Integer year) {
+        List<GeoJsonPolygon> polygons = readPolygons(feature.path("geometry"));
+        if (polygons.isEmpty()) {
+            throw new IllegalArgumentException("No polygon with at least 4 positions");
+        }
+        JsonNode properties = feature.path("properties");
+        String name = properties.path("name").asText(null);
+
+        LanguagesZone zone = new LanguagesZone();
+        zone.setName(name);
+        zone.setDescription(properties.path("formal_en").asText(name));
+        zone.setCoords(polygons);
+        zone.setIntensity(0.5);
+        zone.setColor(colorOf(name));
+        zone.setYear(year);
+        return zone;
+    }
+
+    private static List<GeoJsonPolygon> readPolygons(JsonNode geometry) {
+        List<GeoJsonPolygon> polygons = new ArrayList<>();
+        String type = geometry.path("type").asText();
+        switch (type) {
+            case "Polygon" -> addOuterRing(geometry.path("coordinates"), polygons);
+            case "MultiPolygon" -> {
+                for (JsonNode polygon : geometry.path("coordinates")) {
+                    addOuterRing(polygon, polygons);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported geometry type '" + type + "'");
+        }
+        return polygons;
+    }
+
+    private static void addOuterRing(JsonNode rings, List<GeoJsonPolygon> polygons) {
+        JsonNode ring = rings.path(0);
+        if (ring.size() < 4) {
+            return;
+        }
+        List<Point> points = new ArrayList<>(ring.size());
+        for (JsonNode position : ring) {
+            JsonNode lon = position.path(0);
+            JsonNode lat = position.path(1);
+            if (!lon.isNumber() || !lat.isNumber()
+                    || Math.abs(lon.asDouble()) > 180 || Math.abs(lat.asDouble()) > 90) {
+                throw new IllegalArgumentException("Invalid position " + position);
+            }
+            points.add(new Point(lat.asDouble(), lon.asDouble()));
+        }
+        polygons.add(new GeoJsonPolygon(points));
+    }
+
+    /**
+     * Stable color per name, so reseeding keeps zones recognizable.
+     */
+    private static Integer[] colorOf(String name) {
+        int hash = name == null ? 0 : name.hashCode();
+        return new Integer[]{(hash >>> 16) & 0xFF, (hash >>> 8) & 0xFF, hash & 0xFF};
+    }
+
+    /**
+     * Receives the features of a collection one at a time.
+     */
+    @FunctionalInterface
+    public interface FeatureHandler {
+        /**
+         * @param index position of the feature in the collection
+         * @param zone  zone read from the feature, {@code null} when it was rejected
+         * @param error why the feature was rejected, {@code null} otherwise
+         */
+        void accept(int index, LanguagesZone zone, String error) throws IOException;
+    }
+}
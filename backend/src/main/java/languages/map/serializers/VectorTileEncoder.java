@@ -0,0 +1,198 @@
+package languages.map.serializers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal Mapbox Vector Tile (v2.1) encoder for a single layer of polygon features.
+ * Writes the protobuf wire format directly, see https://github.com/mapbox/vector-tile-spec.
+ */
+public class VectorTileEncoder {
+    private static final int POLYGON = 3;
+    private static final int MOVE_TO = 1;
+    private static final int LINE_TO = 2;
+    private static final int CLOSE_PATH = 7;
+
+    private final String layerName;
+    private final int extent;
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+    private final Map<Object, Integer> values = new LinkedHashMap<>();
+    private final List<byte[]> features = new ArrayList<>();
+
+    public VectorTileEncoder(String layerName, int extent) {
+        this.layerName = layerName;
+        this.extent = extent;
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    /**
+     * @param attributes feature properties; String, Integer, Long, Double and Boolean values are supported
+     * @param rings      outer rings in tile coordinates as {@code x0, y0, x1, y1, ...}, without the closing point
+     */
+    public void addPolygonFeature(Map<String, Object> attributes, List<int[]> rings) {
+        List<Integer> geometry = new ArrayList<>();
+        int cursorX = 0;
+        int cursorY = 0;
+        for (int[] ring : rings) {
+            int points = ring.length / 2;
+            if (points < 3) {
+                continue;
+            }
+            boolean reverse = signedArea(ring) < 0;
+            for (int i = 0; i < points; i++) {
+                int index = reverse ? (points - i) % points : i;
+                int x = ring[2 * index];
+                int y = ring[2 * index + 1];
+                if (i == 0) {
+                    geometry.add(command(MOVE_TO, 1));
+                } else if (i == 1) {
+                    geometry.add(command(LINE_TO, points - 1));
+                }
+                geometry.add(zigZag(x - cursorX));
+                geometry.add(zigZag(y - cursorY));
+                cursorX = x;
+                cursorY = y;
+            }
+            geometry.add(command(CLOSE_PATH, 1));
+        }
+        if (geometry.isEmpty()) {
+            return;
+        }
+
+        List<Integer> tags = new ArrayList<>();
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            if (attribute.getValue() == null) {
+                continue;
+            }
+            tags.add(keys.computeIfAbsent(attribute.getKey(), key -> keys.size()));
+            tags.add(values.computeIfAbsent(attribute.getValue(), value -> values.size()));
+        }
+
+        ProtobufWriter feature = new ProtobufWriter();
+        feature.writePacked(2, tags);
+        feature.writeVarintField(3, POLYGON);
+        feature.writePacked(4, geometry);
+        features.add(feature.toByteArray());
+    }
+
+    /**
+     * @return the encoded tile, empty when no feature was added
+     */
+    public byte[] encode() {
+        if (features.isEmpty()) {
+            return new byte[0];
+        }
+        ProtobufWriter layer = new ProtobufWriter();
+        layer.writeVarintField(15, 2);
+        layer.writeString(1, layerName);
+        for (byte[] feature : features) {
+            layer.writeBytes(2, feature);
+        }
+        for (String key : keys.keySet()) {
+            layer.writeString(3, key);
+        }
+        for (Object value : values.keySet()) {
+            layer.writeBytes(4, encodeValue(value));
+        }
+        layer.writeVarintField(5, extent);
+
+        ProtobufWriter tile = new ProtobufWriter();
+        tile.writeBytes(3, layer.toByteArray());
+        return tile.toByteArray();
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ProtobufWriter writer = new ProtobufWriter();
+        if (value instanceof String string) {
+            writer.writeString(1, string);
+        } else if (value instanceof Double number) {
+            writer.writeDouble(3, number);
+        } else if (value instanceof Integer || value instanceof Long) {
+            writer.writeVarintField(6, zigZag(((Number) value).longValue()));
+        } else if (value instanceof Boolean bool) {
+            writer.writeVarintField(7, bool ? 1 : 0);
+        } else {
+            writer.writeString(1, value.toString());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Shoelace sum in tile coordinates; positive means clockwise on screen, which the spec requires for outer rings.
+     */
+    private static long signedArea(int[] ring) {
+        long area = 0;
+        int points = ring.length / 2;
+        for (int i = 0; i < points; i++) {
+            int j = (i + 1) % points;
+            area += (long) ring[2 * i] * ring[2 * j + 1] - (long) ring[2 * j] * ring[2 * i + 1];
+        }
+        return area;
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static final class ProtobufWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeVarintField(int field, long value) {
+            writeVarint(((long) field << 3));
+            writeVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(int field, byte[] bytes) {
+            writeVarint(((long) field << 3) | 2);
+            writeVarint(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        void writeDouble(int field, double value) {
+            writeVarint(((long) field << 3) | 1);
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (bits >>> (8 * i)) & 0xFF);
+            }
+        }
+
+        void writePacked(int field, List<Integer> values) {
+            ProtobufWriter packed = new ProtobufWriter();
+            for (int value : values) {
+                packed.writeVarint(Integer.toUnsignedLong(value));
+            }
+            writeBytes(field, packed.toByteArray());
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package languages.map.serializers;
+
+import languages.map.models.LanguagesZone;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes zones in the compact binary zone format ({@value #MEDIA_TYPE}), an alternative to GeoJSON coordinate arrays.
+ * <p>
+ * A stream starts with the magic {@code "LZB"}, a format version byte and the precision as varint,
+ * followed by zones until the end of the stream, so it can be written while zones are produced. Each zone is:
+ * <ul>
+ *     <li>a presence byte, bit 0 id, 1 name, 2 description, 3 intensity, 4 color, 5 year, 6 version;</li>
+ *     <li>the present fields in that order: id as 12 raw bytes, strings as varint length and UTF-8 bytes,
+ *     intensity as little-endian float64, color as 3 bytes, year as zigzag varint, version as varint;</li>
+ *     <li>the polygon count as varint, then per polygon the point count as varint and every point as
+ *     zigzag varint deltas of {@code round(x * 10^precision)} and {@code round(y * 10^precision)}.
+ *     Deltas run across all polygons of a zone and restart at zero for the next zone.</li>
+ * </ul>
+ * Varints are unsigned LEB128, as in protobuf.
+ */
+public class ZoneBinaryWriter {
+    public static final String MEDIA_TYPE = "application/vnd.languages-map.zones";
+    public static final int FORMAT_VERSION = 1;
+    public static final int MAX_PRECISION = 9;
+    private static final byte[] MAGIC = {'L', 'Z', 'B'};
+
+    private final OutputStream out;
+    private final double scale;
+
+    /**
+     * Writes the header right away.
+     *
+     * @param out       target stream, not closed by the writer
+     * @param precision decimal digits kept of every coordinate, 0 to {@value #MAX_PRECISION}
+     */
+    public ZoneBinaryWriter(OutputStream out, int precision) throws IOException {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION);
+        }
+        this.out = out;
+        this.scale = Math.pow(10, precision);
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+        writeVarint(precision);
+    }
+
+    public void write(LanguagesZone zone) throws IOException {
+        int presence = (zone.getId() != null ? 1 : 0)
+                | (zone.getName() != null ? 1 << 1 : 0)
+                | (zone.getDescription() != null ? 1 << 2 : 0)
+                | (zone.getIntensity() != null ? 1 << 3 : 0)
+                | (hasColor(zone.getColor()) ? 1 << 4 : 0)
+                | (zone.getYear() != null ? 1 << 5 : 0)
+                | (zone.getVersion() != null ? 1 << 6 : 0);
+        out.write(presence);
+        if (zone.getId() != null) {
+            out.write(zone.getId().toByteArray());
+        }
+        if (zone.getName() != null) {
+            writeString(zone.getName());
+        }
+        if (zone.getDescription() != null) {
+            writeString(zone.getDescription());
+        }
+        if (zone.getIntensity() != null) {
+            long bits = Double.doubleToLongBits(zone.getIntensity());
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (bits >>> (8 * i)) & 0xFF);
+            }
+        }
+        if (hasColor(zone.getColor())) {
+            for (int i = 0; i < 3; i++) {
+                out.write(zone.getColor()[i] & 0xFF);
+            }
+        }
+        if (zone.getYear() != null) {
+            writeVarint(zigZag(zone.getYear()));
+        }
+        if (zone.getVersion() != null) {
+            writeVarint(zone.getVersion());
+        }
+        writeCoords(zone.getCoords());
+    }
+
+    public void writeAll(List<LanguagesZone> zones) throws IOException {
+        for (LanguagesZone zone : zones) {
+            write(zone);
+        }
+    }
+
+    private void writeCoords(List<GeoJsonPolygon> polygons) throws IOException {
+        if (polygons == null) {
+            writeVarint(0);
+            return;
+        }
+        writeVarint(polygons.size());
+        long cursorX = 0;
+        long cursorY = 0;
+        for (GeoJsonPolygon polygon : polygons) {
+            List<Point> points = polygon.getPoints();
+            writeVarint(points.size());
+            for (Point point : points) {
+                long x = Math.round(point.getX() * scale);
+                long y = Math.round(point.getY() * scale);
+                writeVarint(zigZag(x - cursorX));
+                writeVarint(zigZag(y - cursorY));
+                cursorX = x;
+                cursorY = y;
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static boolean hasColor(Integer[] color) {
+        return color != null && color.length == 3
+                && color[0] != null && color[1] != null && color[2] != null;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
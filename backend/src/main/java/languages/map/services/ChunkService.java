@@ -1,10 +1,12 @@
 package languages.map.services;
 
+import languages.map.events.ChunkChangedEvent;
 import languages.map.models.Chunk;
 import languages.map.repositories.ChunkRepository;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,20 +15,22 @@ import java.util.List;
 public class ChunkService {
     private static final Logger logger = LoggerFactory.getLogger(ChunkService.class);
     private final ChunkRepository chunkRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ChunkService(ChunkRepository chunkRepository) {
+    public ChunkService(ChunkRepository chunkRepository, ApplicationEventPublisher eventPublisher) {
         this.chunkRepository = chunkRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Chunk> getChunks() {
-        logger.info("Fetching all chunks");
+        logger.debug("Fetching all chunks");
         List<Chunk> chunks = chunkRepository.findAll();
         logger.debug("Total chunks found: {}", chunks.size());
         return chunks;
     }
 
     public Chunk getChunk(ObjectId id) {
-        logger.info("Fetching chunk with id: {}", id);
+        logger.debug("Fetching chunk with id: {}", id);
         try {
             Chunk chunk = chunkRepository.getChunkById(id)
                     .orElseThrow(() -> new RuntimeException("can't find chunk by id: " + id));
@@ -44,6 +48,7 @@ public class ChunkService {
         try {
             Chunk createdChunk = chunkRepository.save(chunk);
             logger.info("Successfully created chunk with id: {}", createdChunk.getId());
+            eventPublisher.publishEvent(new ChunkChangedEvent(createdChunk.getId(), false));
             return createdChunk;
         } catch (Exception e) {
             logger.error("Failed to create chunk", e);
@@ -0,0 +1,135 @@
+package languages.map.services;
+
+import languages.map.dto.ZoneImportResult;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.events.ZoneBulkWriteEvent;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import languages.map.serializers.GeoJsonFeatureReader;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.operation.valid.IsValidOp;
+import org.locationtech.jts.operation.valid.TopologyValidationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads GeoJSON FeatureCollections into one year. Features are read one at a time and written in unordered bulk
+ * inserts of {@code map.zones.import.batch-size} zones; a rejected feature or failed insert is reported in the
+ * result and the import goes on. Features with a degenerate or topologically invalid polygon, such as a
+ * self-intersecting ring, are rejected with the JTS validation error. Caches of the year are dropped once at the end with a single
+ * {@link LanguagesZoneChangedEvent.Operation#RELOADED} event instead of one event per zone.
+ */
+@Service
+public class LanguagesZoneImportService {
+    private static final Logger logger = LoggerFactory.getLogger(LanguagesZoneImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private final LanguagesZoneRepository languagesZoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    /**
+     * @param batchSize zones per bulk insert
+     */
+    public LanguagesZoneImportService(LanguagesZoneRepository languagesZoneRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${map.zones.import.batch-size:500}") int batchSize) {
+        this.languagesZoneRepository = languagesZoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Zones written before a malformed document is detected stay imported.
+     *
+     * @param in   FeatureCollection document, not closed
+     * @param year year given to every zone
+     * @return counts of read, imported and failed features
+     * @throws IOException              when the document is not well-formed JSON
+     * @throws IllegalArgumentException when the document is not a FeatureCollection
+     */
+    public ZoneImportResult importZones(InputStream in, Integer year) throws IOException {
+        logger.info("Importing languages zones for year: {}", year);
+        ZoneImportResult result = new ZoneImportResult();
+        result.setYear(year);
+        List<LanguagesZone> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        try {
+            GeoJsonFeatureReader.stream(in, year, (index, zone, error) -> {
+                result.setFeatures(result.getFeatures() + 1);
+                String rejection = zone == null ? error : validate(zone);
+                if (rejection != null) {
+                    reject(result, index, zone, rejection);
+                    return;
+                }
+                zone.setId(new ObjectId());
+                zone.setVersion(1L);
+                ZoneGeometries.updateEnvelope(zone);
+                batch.add(zone);
+                batchIndexes.add(index);
+                if (batch.size() == batchSize) {
+                    flush(batch, batchIndexes, result);
+                }
+            });
+            flush(batch, batchIndexes, result);
+        } finally {
+            if (result.getImported() > 0) {
+                eventPublisher.publishEvent(LanguagesZoneChangedEvent.reloaded(year));
+            }
+            logger.info("Imported {} of {} features for year {}, {} failed",
+                    result.getImported(), result.getFeatures(), year, result.getFailed());
+        }
+        return result;
+    }
+
+    /**
+     * @return why the zone can't be stored, or null
+     */
+    private static String validate(LanguagesZone zone) {
+        if (zone.getCoords() == null || zone.getCoords().isEmpty()) {
+            return "Feature without polygons";
+        }
+        for (int i = 0; i < zone.getCoords().size(); i++) {
+            Polygon polygon = ZoneGeometries.toPolygon(zone.getCoords().get(i));
+            if (polygon == null) {
+                return "Polygon with fewer than 3 distinct positions";
+            }
+            TopologyValidationError error = new IsValidOp(polygon).getValidationError();
+            if (error != null) {
+                return "Invalid polygon " + i + ": " + error;
+            }
+        }
+        return null;
+    }
+
+    private void flush(List<LanguagesZone> batch, List<Integer> batchIndexes, ZoneImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(ZoneBulkWriteEvent.written(batch.stream().map(LanguagesZone::getId).toList(), 1L));
+        Map<Integer, String> errors = languagesZoneRepository.insertUnordered(batch);
+        result.setImported(result.getImported() + batch.size() - errors.size());
+        errors.forEach((position, message) -> reject(result, batchIndexes.get(position), batch.get(position), message));
+        logger.debug("Inserted batch of {} languages zones, {} failed", batch.size(), errors.size());
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static void reject(ZoneImportResult result, int index, LanguagesZone zone, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            String name = zone != null ? zone.getName() : null;
+            result.getErrors().add(new ZoneImportResult.FeatureError(index, name, message));
+        }
+    }
+}
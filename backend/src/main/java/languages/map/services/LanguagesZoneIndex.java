@@ -0,0 +1,226 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-year in-memory spatial index over zone envelopes.
+ * A year is loaded from the repository on its first query and then kept in step
+ * with {@link LanguagesZoneChangedEvent}s, so bbox queries only touch candidate zones.
+ * At most {@code maxYears} years are held; the least recently queried one is dropped first.
+ */
+@Component
+public class LanguagesZoneIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LanguagesZoneIndex.class);
+    private final LanguagesZoneRepository languagesZoneRepository;
+    /**
+     * Guarded by itself; only looked up and replaced under the lock, loads run outside of it.
+     */
+    private final Map<Integer, YearSlot> years;
+
+    /**
+     * @param maxYears most years kept indexed
+     */
+    public LanguagesZoneIndex(LanguagesZoneRepository languagesZoneRepository,
+                              @Value("${map.zones.index.max-years:32}") int maxYears) {
+        this.languagesZoneRepository = languagesZoneRepository;
+        this.years = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, YearSlot> eldest) {
+                return size() > maxYears;
+            }
+        };
+    }
+
+    /**
+     * @param year     year of areas
+     * @param envelope area of interest
+     * @return zones of the year whose envelope intersects the given one, in repository order.
+     * Returned zones are shared with the index and must not be modified.
+     */
+    public List<LanguagesZone> query(Integer year, Envelope envelope) {
+        YearSlot slot;
+        boolean loading = false;
+        synchronized (years) {
+            slot = years.get(year);
+            if (slot == null) {
+                slot = new YearSlot();
+                years.put(year, slot);
+                loading = true;
+            }
+        }
+        if (loading) {
+            load(year, slot);
+        }
+        return slot.await().query(envelope);
+    }
+
+    @EventListener
+    @Order(ZoneDatasetVersions.STATE_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        switch (event.operation()) {
+            case SAVED, UPDATED -> snapshot().forEach((year, slot) -> slot.update(year.equals(event.year())
+                    ? index -> index.with(event.zone())
+                    : index -> index.without(event.id())));
+            case DELETED -> snapshot().forEach((year, slot) -> slot.update(index -> index.without(event.id())));
+            case RELOADED -> {
+                if (event.year() != null) {
+                    synchronized (years) {
+                        years.remove(event.year());
+                    }
+                }
+            }
+            case CLEARED -> {
+                synchronized (years) {
+                    years.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return years held, including those still loading, without touching their recency
+     */
+    private Map<Integer, YearSlot> snapshot() {
+        synchronized (years) {
+            return new HashMap<>(years);
+        }
+    }
+
+    private void load(Integer year, YearSlot slot) {
+        try {
+            List<LanguagesZone> zones = languagesZoneRepository.findAllByYear(year).orElse(List.of());
+            logger.info("Indexed {} languages zones for year {}", zones.size(), year);
+            Map<ObjectId, LanguagesZone> byId = new LinkedHashMap<>();
+            for (LanguagesZone zone : zones) {
+                byId.put(zone.getId(), zone);
+            }
+            slot.loaded(new YearIndex(byId));
+        } catch (RuntimeException e) {
+            synchronized (years) {
+                years.remove(year, slot);
+            }
+            slot.failed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * One year, loaded by the first query while the others wait for it. Changes arriving during the load
+     * are kept and applied on top of what was read, since the read may or may not include them.
+     */
+    private static final class YearSlot {
+        private final CompletableFuture<Void> ready = new CompletableFuture<>();
+        private final List<UnaryOperator<YearIndex>> pending = new ArrayList<>();
+        private YearIndex index;
+
+        synchronized void update(UnaryOperator<YearIndex> change) {
+            if (index == null) {
+                pending.add(change);
+            } else {
+                index = change.apply(index);
+            }
+        }
+
+        void loaded(YearIndex loaded) {
+            synchronized (this) {
+                YearIndex current = loaded;
+                for (UnaryOperator<YearIndex> change : pending) {
+                    current = change.apply(current);
+                }
+                pending.clear();
+                index = current;
+            }
+            ready.complete(null);
+        }
+
+        void failed(RuntimeException failure) {
+            ready.completeExceptionally(failure);
+        }
+
+        YearIndex await() {
+            try {
+                ready.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException failure) {
+                    throw failure;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of one year; writes produce a new snapshot.
+     */
+    private static final class YearIndex {
+        private final Map<ObjectId, LanguagesZone> zones;
+        private final STRtree tree = new STRtree();
+
+        YearIndex(Map<ObjectId, LanguagesZone> zones) {
+            this.zones = zones;
+            int ordinal = 0;
+            for (LanguagesZone zone : zones.values()) {
+                Envelope envelope = ZoneGeometries.envelopeOf(zone);
+                if (!envelope.isNull()) {
+                    tree.insert(envelope, new Entry(ordinal, zone));
+                }
+                ordinal++;
+            }
+            tree.build();
+        }
+
+        List<LanguagesZone> query(Envelope envelope) {
+            List<Entry> hits = new ArrayList<>();
+            tree.query(envelope, item -> hits.add((Entry) item));
+            hits.sort(Comparator.comparingInt(Entry::ordinal));
+            List<LanguagesZone> result = new ArrayList<>(hits.size());
+            for (Entry hit : hits) {
+                result.add(hit.zone());
+            }
+            return result;
+        }
+
+        YearIndex with(LanguagesZone zone) {
+            Map<ObjectId, LanguagesZone> copy = new LinkedHashMap<>(zones);
+            copy.put(zone.getId(), zone);
+            return new YearIndex(copy);
+        }
+
+        YearIndex without(ObjectId id) {
+            if (!zones.containsKey(id)) {
+                return this;
+            }
+            Map<ObjectId, LanguagesZone> copy = new LinkedHashMap<>(zones);
+            copy.remove(id);
+            return new YearIndex(copy);
+        }
+    }
+
+    private record Entry(int ordinal, LanguagesZone zone) {
+    }
+}
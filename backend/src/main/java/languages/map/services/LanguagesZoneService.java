@@ -1,153 +1,364 @@
 package languages.map.services;
 
-import org.locationtech.jts.geom.MultiPolygon;
-import org.locationtech.jts.operation.overlay.OverlayOp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.geo.Point;
+import languages.map.dto.BatchBoundingBoxRequest;
 import languages.map.dto.BoundingBoxRequest;
+import languages.map.dto.ZonePatchRequest;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.events.ZoneBulkWriteEvent;
+import languages.map.geometry.LevelOfDetail;
+import languages.map.geometry.RectangleClipper;
+import languages.map.geometry.ZoneGeometries;
 import languages.map.models.LanguagesZone;
 import languages.map.repositories.LanguagesZoneRepository;
 import org.bson.types.ObjectId;
 import org.jetbrains.annotations.NotNull;
-import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class LanguagesZoneService {
     private static final Logger logger = LoggerFactory.getLogger(LanguagesZoneService.class);
+    /**
+     * Below this many zones the executor hand-off costs more than it saves.
+     */
+    private static final int PARALLEL_THRESHOLD = 8;
+    /**
+     * Zones of one request submitted to the clip executor at a time; bounds memory of streamed responses.
+     */
+    private static final int MAX_IN_FLIGHT = 256;
     private final LanguagesZoneRepository languagesZoneRepository;
+    private final LanguagesZoneIndex languagesZoneIndex;
+    private final ZoneGeometryCache zoneGeometryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ZoneQueryMode bboxQueryMode;
+    private final ExecutorService zoneClipExecutor;
+    private final long clipTimeoutMillis;
+    private final ZoneMetrics zoneMetrics;
 
-    public LanguagesZoneService(LanguagesZoneRepository languagesZoneRepository) {
+    public LanguagesZoneService(LanguagesZoneRepository languagesZoneRepository,
+                                LanguagesZoneIndex languagesZoneIndex,
+                                ZoneGeometryCache zoneGeometryCache,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${map.zones.bbox-query:INDEX}") ZoneQueryMode bboxQueryMode,
+                                @Qualifier("zoneClipExecutor") ExecutorService zoneClipExecutor,
+                                @Value("${map.zones.clip.timeout-ms:10000}") long clipTimeoutMillis,
+                                ZoneMetrics zoneMetrics) {
         this.languagesZoneRepository = languagesZoneRepository;
+        this.languagesZoneIndex = languagesZoneIndex;
+        this.zoneGeometryCache = zoneGeometryCache;
+        this.eventPublisher = eventPublisher;
+        this.bboxQueryMode = bboxQueryMode;
+        this.zoneClipExecutor = zoneClipExecutor;
+        this.clipTimeoutMillis = clipTimeoutMillis;
+        this.zoneMetrics = zoneMetrics;
     }
 
     public List<LanguagesZone> getLanguagesZone(@NotNull BoundingBoxRequest boundingBoxRequest, Integer year) {
-        logger.info("Fetching languages zones for year: {}", year);
-        final var boundingBox = getBoundingBox(boundingBoxRequest);
-        List<LanguagesZone> zones = getLanguagesZoneByYear(year);
+        double tolerance = LevelOfDetail.tolerance(boundingBoxRequest.getZoom(), boundingBoxRequest.getTolerance());
+        return getLanguagesZone(getBoundingBox(boundingBoxRequest), tolerance, year);
+    }
 
-        logger.debug("Total zones found: {}", zones.size());
+    /**
+     * @param envelope  area of interest, latitude on x as in {@link BoundingBoxRequest}
+     * @param tolerance largest acceptable simplification in degrees, 0 for full resolution
+     * @param year      year of areas
+     * @return zones of the year clipped to the envelope
+     */
+    public List<LanguagesZone> getLanguagesZone(@NotNull Envelope envelope, double tolerance, Integer year) {
+        return getLanguagesZone(new RectangleClipper(envelope), tolerance, year);
+    }
+
+    private List<LanguagesZone> getLanguagesZone(RectangleClipper boundingBox, double tolerance, Integer year) {
+        logger.debug("Fetching languages zones for year: {}", year);
+        List<LanguagesZone> zones = findCandidates(year, boundingBox.getRectangle());
+
+        logger.debug("Candidate zones found: {}, tolerance: {}", zones.size(), tolerance);
 
-        return zones.stream()
-                .map(zone -> processZone(zone, boundingBox))
+        return mapInParallel(zones, zone -> processZone(zone, boundingBox, tolerance)).stream()
                 .filter(java.util.Objects::nonNull)
                 .toList();
     }
 
-    private LanguagesZone processZone(LanguagesZone zone, Geometry boundingBox) {
-        try {
-            logger.info("Processing zone with id: {}", zone.getId());
-            List<GeoJsonPolygon> clippedPolygons = clipPolygons(zone, boundingBox);
-            zone.setCoords(clippedPolygons);
-            logger.debug("Clipped polygons for zone id {}: {}", zone.getId(), clippedPolygons.size());
-            return zone;
-        } catch (Exception e) {
-            logger.error("Error clipping geometry for zone: {}", zone.getId(), e);
-            throw new RuntimeException("Error clipping geometry for zone: " + zone.getId(), e);
+    /**
+     * Loads the candidate zones of all chunks once and clips every candidate against each chunk it touches.
+     *
+     * @param batchRequest bounding boxes keyed by chunk id
+     * @param year         year of areas
+     * @return clipped zones keyed by chunk id, in request order; chunks without zones map to an empty list
+     */
+    public Map<String, List<LanguagesZone>> getLanguagesZoneBatch(@NotNull BatchBoundingBoxRequest batchRequest,
+                                                                  Integer year) {
+        double tolerance = LevelOfDetail.tolerance(batchRequest.getZoom(), batchRequest.getTolerance());
+        Map<String, RectangleClipper> chunks = new LinkedHashMap<>();
+        Envelope union = new Envelope();
+        batchRequest.getChunks().forEach((chunkId, boundingBoxRequest) -> {
+            RectangleClipper clipper = getBoundingBox(boundingBoxRequest);
+            chunks.put(chunkId, clipper);
+            union.expandToInclude(clipper.getRectangle());
+        });
+        logger.debug("Fetching languages zones for year {} in {} chunks", year, chunks.size());
+
+        List<LanguagesZone> zones = findCandidates(year, union);
+        logger.debug("Candidate zones found for batch: {}", zones.size());
+
+        List<Map<String, LanguagesZone>> clippedByZone =
+                mapInParallel(zones, zone -> clipToChunks(zone, chunks, tolerance));
+
+        Map<String, List<LanguagesZone>> result = new LinkedHashMap<>();
+        chunks.keySet().forEach(chunkId -> result.put(chunkId, new ArrayList<>()));
+        for (Map<String, LanguagesZone> clipped : clippedByZone) {
+            clipped.forEach((chunkId, zone) -> result.get(chunkId).add(zone));
         }
+        return result;
     }
 
-    private List<GeoJsonPolygon> clipPolygons(LanguagesZone zone, Geometry boundingBox) {
-        List<GeoJsonPolygon> allPolygons = new ArrayList<>();
-        for (GeoJsonPolygon geoJsonPolygon : zone.getCoords()) {
-            allPolygons.addAll(clipPolygon(geoJsonPolygon, boundingBox));  // Add the list of clipped polygons
+    private Map<String, LanguagesZone> clipToChunks(LanguagesZone zone, Map<String, RectangleClipper> chunks,
+                                                    double tolerance) {
+        Envelope zoneEnvelope = ZoneGeometries.envelopeOf(zone);
+        Map<String, LanguagesZone> clipped = new LinkedHashMap<>();
+        chunks.forEach((chunkId, clipper) -> {
+            if (clipper.getRectangle().intersects(zoneEnvelope)) {
+                LanguagesZone chunkZone = processZone(zone, clipper, tolerance);
+                if (chunkZone != null) {
+                    clipped.put(chunkId, chunkZone);
+                }
+            }
+        });
+        return clipped;
+    }
+
+    /**
+     * Clips the zones of the year inside the bounding box and hands them to the writer one by one,
+     * in candidate order, without collecting the whole result first.
+     */
+    public void streamLanguagesZone(@NotNull BoundingBoxRequest boundingBoxRequest, Integer year, ZoneWriter writer)
+            throws IOException {
+        logger.debug("Streaming languages zones for year: {}", year);
+        double tolerance = LevelOfDetail.tolerance(boundingBoxRequest.getZoom(), boundingBoxRequest.getTolerance());
+        RectangleClipper boundingBox = getBoundingBox(boundingBoxRequest);
+        try (Stream<LanguagesZone> candidates = streamCandidates(year, boundingBox.getRectangle())) {
+            forEachInParallel(candidates.iterator(), zone -> processZone(zone, boundingBox, tolerance), zone -> {
+                if (zone != null) {
+                    writer.write(zone);
+                }
+            });
         }
-        logger.debug("Clipped {} polygons for zone {}", allPolygons.size(), zone.getId());
-        return allPolygons;
     }
 
+    /**
+     * Hands every zone of the year to the writer as it is read from the Mongo cursor.
+     */
+    public void streamLanguagesZoneByYear(Integer year, ZoneWriter writer) throws IOException {
+        logger.debug("Streaming languages zones for year: {}", year);
+        try (Stream<LanguagesZone> zones = languagesZoneRepository.streamAllByYear(year)) {
+            Iterator<LanguagesZone> iterator = zones.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+    }
 
-    private List<GeoJsonPolygon> clipPolygon(GeoJsonPolygon geoJsonPolygon, Geometry boundingBox) {
+    /**
+     * Applies the function to every item on the clip executor.
+     *
+     * @return results in the order of the items
+     * @throws RuntimeException when a call fails or the clip deadline passes
+     */
+    private <T, R> List<R> mapInParallel(List<T> items, Function<T, R> function) {
+        if (items.size() < PARALLEL_THRESHOLD) {
+            return items.stream().map(function).toList();
+        }
+        List<R> results = new ArrayList<>(items.size());
         try {
-            String wkt = createWKT(geoJsonPolygon);
-            Geometry zoneGeometry = new WKTReader().read(wkt);
+            forEachInParallel(items.iterator(), function, results::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return results;
+    }
 
-            if (!zoneGeometry.isValid()) {
-                zoneGeometry = zoneGeometry.buffer(0);
+    /**
+     * Applies the function to every item on the clip executor, keeping at most {@link #MAX_IN_FLIGHT}
+     * items submitted, and passes the results to the sink in the order of the items.
+     * Every call has its own deadline counted from its submission, so time spent reading the items or blocked
+     * in the sink, such as writing to a slow client, never fails a call that already finished.
+     *
+     * @throws RuntimeException when a call fails or does not finish within the clip deadline
+     */
+    private <T, R> void forEachInParallel(Iterator<T> items, Function<T, R> function, ResultSink<R> sink)
+            throws IOException {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(clipTimeoutMillis);
+        Deque<Submitted<R>> inFlight = new ArrayDeque<>();
+        try {
+            while (items.hasNext()) {
+                T item = items.next();
+                inFlight.addLast(new Submitted<>(submit(function, item), System.nanoTime() + timeoutNanos));
+                if (inFlight.size() >= MAX_IN_FLIGHT) {
+                    sink.accept(await(inFlight.removeFirst()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.removeFirst()));
             }
+        } finally {
+            inFlight.forEach(submitted -> submitted.future().cancel(true));
+        }
+    }
 
-            Geometry clippedGeometry = OverlayOp.overlayOp(zoneGeometry, boundingBox, OverlayOp.INTERSECTION);
-
-            if (!clippedGeometry.isEmpty()) {
-                if (clippedGeometry instanceof MultiPolygon multiPolygon) {
-                    List<GeoJsonPolygon> polygons = new ArrayList<>();
-                    for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
-                        Geometry poly = multiPolygon.getGeometryN(i);
-                        List<Point> newPoints = createCutPoints(zoneGeometry, poly);
-                        polygons.add(new GeoJsonPolygon(newPoints));
-                    }
-                    logger.debug("Created {} clipped polygons from multi-polygon", polygons.size());
-                    return polygons;
-                } else {
-                    List<Point> newPoints = createCutPoints(zoneGeometry, clippedGeometry);
-                    logger.debug("Created 1 clipped polygon");
-                    return List.of(new GeoJsonPolygon(newPoints));
-                }
+    /**
+     * @return future of the call on the clip executor, or of the call made right here once the executor
+     * rejects work because it is shutting down
+     */
+    private <T, R> Future<R> submit(Function<T, R> function, T item) {
+        try {
+            return zoneClipExecutor.submit(() -> function.apply(item));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Clipping on the request thread: {}", e.getMessage());
+            return CompletableFuture.completedFuture(function.apply(item));
+        }
+    }
+
+    private <R> R await(Submitted<R> submitted) {
+        try {
+            return submitted.future().get(Math.max(0L, submitted.deadline() - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.error("Clipping exceeded {} ms", clipTimeoutMillis);
+            throw new RuntimeException("Clipping deadline of " + clipTimeoutMillis + " ms exceeded", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-            logger.warn("Clipped geometry is empty for zone geometry");
-            return List.of();
-        } catch (Exception e) {
-            logger.error("Error processing geometry for polygon", e);
-            throw new RuntimeException("Error processing geometry", e);
+            throw new RuntimeException("Error clipping zones", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while clipping zones", e);
         }
     }
 
+    /**
+     * @param deadline {@link System#nanoTime()} by which the call has to finish
+     */
+    private record Submitted<R>(Future<R> future, long deadline) {
+    }
 
+    @FunctionalInterface
+    private interface ResultSink<R> {
+        void accept(R result) throws IOException;
+    }
 
-    private List<Point> createCutPoints(Geometry zoneGeometry, Geometry clippedGeometry) {
-        List<Point> newPoints = new ArrayList<>();
-        Coordinate[] clippedCoords = clippedGeometry.getCoordinates();
+    private Stream<LanguagesZone> streamCandidates(Integer year, Envelope envelope) {
+        return switch (bboxQueryMode) {
+            case INDEX -> languagesZoneIndex.query(year, envelope).stream();
+            case GEO -> languagesZoneRepository.streamAllByYearIntersecting(year, envelope);
+            case ENVELOPE -> languagesZoneRepository.streamAllByYearOverlapping(year, envelope);
+        };
+    }
 
-        for (Coordinate coord : clippedCoords) {
-            newPoints.add(new Point(coord.x, coord.y));
-        }
+    private List<LanguagesZone> findCandidates(Integer year, Envelope envelope) {
+        return zoneMetrics.timeCandidateFetch(bboxQueryMode, () -> switch (bboxQueryMode) {
+            case INDEX -> languagesZoneIndex.query(year, envelope);
+            case GEO -> languagesZoneRepository.findAllByYearIntersecting(year, envelope);
+            case ENVELOPE -> languagesZoneRepository.findAllByYearOverlapping(year, envelope);
+        });
+    }
 
-        if (!newPoints.isEmpty()) {
-            Point firstPoint = newPoints.get(0);
-            newPoints.add(firstPoint); // Ensure the polygon is closed
+    /**
+     * @return copy of the zone clipped to the bounding box, or null when nothing of it is left.
+     * The zone itself is shared with {@link LanguagesZoneIndex} and is never modified.
+     * Also used by {@link ReactiveLanguagesZoneService} on its own scheduler.
+     */
+    LanguagesZone processZone(LanguagesZone zone, RectangleClipper boundingBox, double tolerance) {
+        try {
+            logger.trace("Processing zone with id: {}", zone.getId());
+            List<GeoJsonPolygon> clippedPolygons = clipPolygons(zone, boundingBox, tolerance);
+            return clippedPolygons.isEmpty() ? null : withCoords(zone, clippedPolygons);
+        } catch (Exception e) {
+            logger.error("Error clipping geometry for zone: {}", zone.getId(), e);
+            throw new RuntimeException("Error clipping geometry for zone: " + zone.getId(), e);
         }
-
-        logger.debug("Created {} cut points for clipped geometry", newPoints.size());
-        return newPoints;
     }
 
+    private static LanguagesZone withCoords(LanguagesZone zone, List<GeoJsonPolygon> coords) {
+        LanguagesZone copy = new LanguagesZone();
+        copy.setId(zone.getId());
+        copy.setCoords(coords);
+        copy.setDescription(zone.getDescription());
+        copy.setName(zone.getName());
+        copy.setIntensity(zone.getIntensity());
+        copy.setColor(zone.getColor());
+        copy.setYear(zone.getYear());
+        copy.setVersion(zone.getVersion());
+        return copy;
+    }
 
-    private String createWKT(GeoJsonPolygon geoJsonPolygon) {
-        String wkt = String.format("POLYGON((%s))",
-                geoJsonPolygon.getPoints().stream()
-                        .map(p -> p.getX() + " " + p.getY())
-                        .collect(Collectors.joining(", ")));
-        logger.debug("Generated WKT: {}", wkt);
-        return wkt;
+    private List<GeoJsonPolygon> clipPolygons(LanguagesZone zone, RectangleClipper clipper, double tolerance) {
+        long start = System.nanoTime();
+        int verticesIn = 0;
+        int verticesOut = 0;
+        List<GeoJsonPolygon> allPolygons = new ArrayList<>();
+        for (Geometry zoneGeometry : zoneGeometryCache.get(zone, tolerance)) {
+            verticesIn += zoneGeometry.getNumPoints();
+            for (Polygon polygon : clipper.clip(zoneGeometry)) {
+                GeoJsonPolygon clipped = toGeoJsonPolygon(polygon);
+                verticesOut += clipped.getPoints().size();
+                allPolygons.add(clipped);
+            }
+        }
+        zoneMetrics.recordClip(System.nanoTime() - start, verticesIn, verticesOut);
+        logger.trace("Clipped {} polygons for zone {}", allPolygons.size(), zone.getId());
+        return allPolygons;
     }
 
+    private static GeoJsonPolygon toGeoJsonPolygon(Polygon polygon) {
+        CoordinateSequence ring = polygon.getExteriorRing().getCoordinateSequence();
+        List<Point> points = new ArrayList<>(ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            points.add(new Point(ring.getX(i), ring.getY(i)));
+        }
+        return new GeoJsonPolygon(points);
+    }
 
-    private static Geometry getBoundingBox(@NotNull BoundingBoxRequest boundingBoxRequest) {
+    static RectangleClipper getBoundingBox(@NotNull BoundingBoxRequest boundingBoxRequest) {
         double x1 = boundingBoxRequest.getLeftTopPointLatLon()[0];
         double y1 = boundingBoxRequest.getLeftTopPointLatLon()[1];
         double x2 = boundingBoxRequest.getRightBottomPointLatLon()[0];
         double y2 = boundingBoxRequest.getRightBottomPointLatLon()[1];
 
-        GeometryFactory geometryFactory = new GeometryFactory();
-        Geometry boundingBox = geometryFactory.createPolygon(new Coordinate[]{
-                new Coordinate(x1, y1),
-                new Coordinate(x1, y2),
-                new Coordinate(x2, y2),
-                new Coordinate(x2, y1),
-                new Coordinate(x1, y1)
-        });
-
         logger.debug("Created bounding box with coordinates: {}, {}", x1, y1);
-        return boundingBox;
+        return new RectangleClipper(new Envelope(x1, x2, y1, y2));
     }
 
     /**
@@ -155,7 +366,7 @@ public class LanguagesZoneService {
      * @return return LanguagesZone`s body
      */
     public LanguagesZone getLanguageZoneById(ObjectId id) {
-        logger.info("Fetching languages zone with id: {}", id);
+        logger.debug("Fetching languages zone with id: {}", id);
         return languagesZoneRepository.findById(id).orElseThrow(() -> {
             logger.error("No languages zone found with id: {}", id);
             return new RuntimeException("No areas by id: " + id);
@@ -167,8 +378,8 @@ public class LanguagesZoneService {
      * @return a list of Areas for specific year and map
      */
     public List<LanguagesZone> getLanguagesZoneByYear(Integer year) {
-        logger.info("Fetching languages zones for year: {}", year);
-        List<LanguagesZone> zones = languagesZoneRepository.findAllByYear(year)
+        logger.debug("Fetching languages zones for year: {}", year);
+        List<LanguagesZone> zones = zoneMetrics.timeYearFetch(() -> languagesZoneRepository.findAllByYear(year))
                 .orElseThrow(() -> {
                     logger.error("No languages zones found for year: {}", year);
                     return new RuntimeException("No areas by year: " + year);
@@ -178,45 +389,119 @@ public class LanguagesZoneService {
     }
 
     /**
+     * Replaces the stored zone of the same id; the version continues from the stored zone, whatever the caller set.
+     *
      * @param languagesZone body of new LanguagesZone.
      * @return return into repository new LanguagesZone body to create new LanguagesZone
      */
     public LanguagesZone saveLanguageZone(LanguagesZone languagesZone) {
+        Long storedVersion = null;
         if (languagesZone.getId() == null) {
             languagesZone.setId(new ObjectId()); // Ensure an ID is set before saving
+        } else {
+            storedVersion = languagesZoneRepository.findById(languagesZone.getId())
+                    .map(LanguagesZone::getVersion)
+                    .orElse(null);
         }
+        languagesZone.setVersion(nextVersion(storedVersion));
+        ZoneGeometries.updateEnvelope(languagesZone);
         logger.info("Saving new languages zone: {}", languagesZone);
         LanguagesZone savedZone = languagesZoneRepository.save(languagesZone);
         logger.info("Successfully saved languages zone with id: {}", savedZone.getId());
+        eventPublisher.publishEvent(LanguagesZoneChangedEvent.saved(savedZone));
         return savedZone;
     }
     public LanguagesZone updateLanguageZone(ObjectId id, LanguagesZone newLanguagesZone) {
         logger.info("Updating languages zone with id: {}", id);
         return languagesZoneRepository.findById(id).map(area -> {
             logger.debug("Found existing zone, updating it");
+            Integer previousYear = area.getYear();
+            Envelope previousEnvelope = ZoneGeometries.envelopeOf(area);
             area.setName(newLanguagesZone.getName());
             area.setDescription(newLanguagesZone.getDescription());
             area.setCoords(newLanguagesZone.getCoords());
             area.setIntensity(newLanguagesZone.getIntensity());
             area.setColor(newLanguagesZone.getColor());
             area.setYear(newLanguagesZone.getYear());
+            area.setVersion(nextVersion(area.getVersion()));
+            ZoneGeometries.updateEnvelope(area);
             LanguagesZone updatedZone = languagesZoneRepository.save(area);
             logger.info("Successfully updated languages zone with id: {}", updatedZone.getId());
+            eventPublisher.publishEvent(LanguagesZoneChangedEvent.updated(updatedZone, previousYear,
+                    previousEnvelope.isNull() ? null : previousEnvelope));
             return updatedZone;
         }).orElseGet(() -> {
             logger.warn("No existing zone found, creating new one");
             newLanguagesZone.setId(id);
+            newLanguagesZone.setVersion(nextVersion(null));
+            ZoneGeometries.updateEnvelope(newLanguagesZone);
             LanguagesZone createdZone = languagesZoneRepository.save(newLanguagesZone);
             logger.info("Successfully created languages zone with id: {}", createdZone.getId());
+            eventPublisher.publishEvent(LanguagesZoneChangedEvent.saved(createdZone));
             return createdZone;
         });
     }
 
+    /**
+     * Zone versions key the geometry caches; documents written before versioning count as version 0.
+     */
+    private static Long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
     public void deleteLanguageZone(LanguagesZone languageZone) {
         this.languagesZoneRepository.delete(languageZone);
+        Envelope envelope = ZoneGeometries.envelopeOf(languageZone);
+        eventPublisher.publishEvent(LanguagesZoneChangedEvent.deleted(languageZone.getId(), languageZone.getYear(),
+                envelope.isNull() ? null : envelope));
+    }
+
+    /**
+     * Deletes the zones with one query; caches drop every year the zones were in.
+     *
+     * @return number of deleted zones
+     */
+    public long deleteLanguageZones(Collection<ObjectId> ids) {
+        List<Integer> years = languagesZoneRepository.findYearsOfIds(ids);
+        eventPublisher.publishEvent(ZoneBulkWriteEvent.deleted(ids));
+        long deleted = languagesZoneRepository.deleteByIdIn(ids);
+        logger.info("Deleted {} of {} languages zones", deleted, ids.size());
+        years.forEach(year -> eventPublisher.publishEvent(LanguagesZoneChangedEvent.reloaded(year)));
+        return deleted;
+    }
+
+    /**
+     * @return number of deleted zones
+     */
+    public long deleteLanguageZonesByYear(Integer year) {
+        eventPublisher.publishEvent(ZoneBulkWriteEvent.deleted(languagesZoneRepository.findIdsByYear(year)));
+        long deleted = languagesZoneRepository.deleteByYear(year);
+        logger.info("Deleted {} languages zones of year {}", deleted, year);
+        eventPublisher.publishEvent(LanguagesZoneChangedEvent.reloaded(year));
+        return deleted;
+    }
+
+    /**
+     * Sets the metadata of the patch on all its zones in one update; geometry is neither read nor written.
+     * Zone versions are kept, so cached geometry stays valid; payload caches and ETags still move, as they drop the
+     * years the zones were in and the year they were moved to.
+     *
+     * @return number of modified zones
+     */
+    public long patchLanguageZones(Collection<ObjectId> ids, ZonePatchRequest patch) {
+        Set<Integer> years = new LinkedHashSet<>(languagesZoneRepository.findYearsOfIds(ids));
+        eventPublisher.publishEvent(ZoneBulkWriteEvent.written(ids, null));
+        long modified = languagesZoneRepository.updateMetadata(ids, patch);
+        logger.info("Patched {} of {} languages zones", modified, ids.size());
+        if (patch.getYear() != null && modified > 0) {
+            years.add(patch.getYear());
+        }
+        years.forEach(year -> eventPublisher.publishEvent(LanguagesZoneChangedEvent.reloaded(year)));
+        return modified;
     }
 
     public void deleteAllLanguageZone() {
         this.languagesZoneRepository.deleteAll();
+        eventPublisher.publishEvent(LanguagesZoneChangedEvent.cleared());
     }
 }
@@ -0,0 +1,129 @@
+package languages.map.services;
+
+import org.bson.types.ObjectId;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes of this instance whose change stream echo is still expected, for {@link ZoneChangeStreamListener}.
+ * <ul>
+ *     <li>Writes of one id are counted and the highest version written is kept, since the document looked up for an
+ *     echo may already carry the version of a later local write. Every write swallows one echo.</li>
+ *     <li>Marks expire after {@code ttl} when their echo never comes, e.g. for a failed write; past {@code capacity}
+ *     ids the oldest go first.</li>
+ * </ul>
+ */
+final class LocalWrites {
+    /**
+     * Version of writes whose resulting version isn't known, such as chunk writes and metadata patches,
+     * which keep the version each zone already had.
+     */
+    static final long ANY_VERSION = Long.MAX_VALUE;
+    private final int capacity;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<ObjectId, Pending> pending = new LinkedHashMap<>();
+
+    LocalWrites(int capacity, long ttlMillis) {
+        this(capacity, ttlMillis, System::nanoTime);
+    }
+
+    LocalWrites(int capacity, long ttlMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * @param version version the write leaves the document at, {@link #ANY_VERSION} when unknown
+     */
+    synchronized void written(ObjectId id, long version) {
+        Pending marks = touch(id);
+        marks.writes++;
+        marks.maxVersion = Math.max(marks.maxVersion, version);
+    }
+
+    synchronized void deleted(ObjectId id) {
+        touch(id).deletes++;
+    }
+
+    /**
+     * @param version version of the inserted or updated document the change carries, null when it has none
+     * @return whether the change is the echo of a local write, which is then consumed
+     */
+    synchronized boolean isWriteEcho(ObjectId id, Long version) {
+        Pending marks = live(id);
+        if (marks == null || marks.writes == 0 || (version != null ? version : 0L) > marks.maxVersion) {
+            return false;
+        }
+        marks.writes--;
+        release(id, marks);
+        return true;
+    }
+
+    synchronized boolean isDeleteEcho(ObjectId id) {
+        Pending marks = live(id);
+        if (marks == null || marks.deletes == 0) {
+            return false;
+        }
+        marks.deletes--;
+        release(id, marks);
+        return true;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Moves the marks of the id to the young end, so expiry and eviction go in order of the last write.
+     */
+    private Pending touch(ObjectId id) {
+        long now = clock.getAsLong();
+        Pending marks = pending.remove(id);
+        if (marks == null) {
+            marks = new Pending();
+        }
+        marks.expiresAt = now + ttlNanos;
+        pending.put(id, marks);
+        evict(now);
+        return marks;
+    }
+
+    private Pending live(ObjectId id) {
+        Pending marks = pending.get(id);
+        if (marks != null && clock.getAsLong() - marks.expiresAt > 0) {
+            pending.remove(id);
+            return null;
+        }
+        return marks;
+    }
+
+    private void release(ObjectId id, Pending marks) {
+        if (marks.writes == 0 && marks.deletes == 0) {
+            pending.remove(id);
+        }
+    }
+
+    private void evict(long now) {
+        Iterator<Pending> oldest = pending.values().iterator();
+        while (oldest.hasNext()) {
+            Pending marks = oldest.next();
+            if (pending.size() <= capacity && now - marks.expiresAt <= 0) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+
+    private static final class Pending {
+        private int writes;
+        private int deletes;
+        private long maxVersion = Long.MIN_VALUE;
+        private long expiresAt;
+    }
+}
@@ -0,0 +1,39 @@
+package languages.map.services;
+
+import languages.map.models.Chunk;
+import languages.map.repositories.ReactiveChunkRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the chunk reads of {@link ChunkService}.
+ */
+@Service
+@ConditionalOnProperty(name = "map.reactive.enabled", havingValue = "true")
+public class ReactiveChunkService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChunkService.class);
+    private final ReactiveChunkRepository reactiveChunkRepository;
+
+    public ReactiveChunkService(ReactiveChunkRepository reactiveChunkRepository) {
+        this.reactiveChunkRepository = reactiveChunkRepository;
+    }
+
+    public Flux<Chunk> getChunks() {
+        logger.info("Fetching all chunks reactively");
+        return reactiveChunkRepository.findAll();
+    }
+
+    /**
+     * @return the chunk, or an error when there is no chunk with the id
+     */
+    public Mono<Chunk> getChunk(ObjectId id) {
+        logger.info("Fetching chunk reactively with id: {}", id);
+        return reactiveChunkRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("can't find chunk by id: " + id)));
+    }
+}
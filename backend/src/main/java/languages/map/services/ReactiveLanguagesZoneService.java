@@ -0,0 +1,73 @@
+package languages.map.services;
+
+import languages.map.dto.BoundingBoxRequest;
+import languages.map.geometry.LevelOfDetail;
+import languages.map.geometry.RectangleClipper;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.ReactiveLanguagesZoneRepository;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reactive variant of the zone reads of {@link LanguagesZoneService}: zones come from the reactive Mongo driver
+ * as the subscriber requests them and are clipped on the bounded {@code zoneClipScheduler}.
+ */
+@Service
+@ConditionalOnProperty(name = "map.reactive.enabled", havingValue = "true")
+public class ReactiveLanguagesZoneService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveLanguagesZoneService.class);
+    /**
+     * Zones requested from the cursor ahead of the clipping stage.
+     */
+    private static final int PREFETCH = 32;
+    private final ReactiveLanguagesZoneRepository reactiveLanguagesZoneRepository;
+    private final LanguagesZoneService languagesZoneService;
+    private final Scheduler zoneClipScheduler;
+    private final int concurrency;
+
+    public ReactiveLanguagesZoneService(ReactiveLanguagesZoneRepository reactiveLanguagesZoneRepository,
+                                        LanguagesZoneService languagesZoneService,
+                                        @Qualifier("zoneClipScheduler") Scheduler zoneClipScheduler) {
+        this.reactiveLanguagesZoneRepository = reactiveLanguagesZoneRepository;
+        this.languagesZoneService = languagesZoneService;
+        this.zoneClipScheduler = zoneClipScheduler;
+        this.concurrency = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @param year year of areas
+     * @return zones of the year, in cursor order
+     */
+    public Flux<LanguagesZone> getLanguagesZoneByYear(Integer year) {
+        logger.debug("Fetching languages zones reactively for year: {}", year);
+        return reactiveLanguagesZoneRepository.findAllByYear(year);
+    }
+
+    /**
+     * Candidates are selected by their stored envelope; zones stored without one, such as those written before
+     * the envelope migration ran, are always candidates and dropped by clipping when outside.
+     *
+     * @param boundingBoxRequest area of interest with optional zoom or tolerance
+     * @param year               year of areas
+     * @return clipped zones in cursor order; at most one clip per processor runs for a request at a time
+     */
+    public Flux<LanguagesZone> getLanguagesZone(BoundingBoxRequest boundingBoxRequest, Integer year) {
+        RectangleClipper boundingBox = LanguagesZoneService.getBoundingBox(boundingBoxRequest);
+        double tolerance = LevelOfDetail.tolerance(boundingBoxRequest.getZoom(), boundingBoxRequest.getTolerance());
+        Envelope envelope = boundingBox.getRectangle();
+        logger.debug("Fetching languages zones reactively for year {} in bounding box", year);
+        return reactiveLanguagesZoneRepository
+                .findAllByYearOverlapping(year, envelope.getMinX(), envelope.getMaxX(),
+                        envelope.getMinY(), envelope.getMaxY())
+                .flatMapSequential(zone -> Mono
+                        .fromCallable(() -> languagesZoneService.processZone(zone, boundingBox, tolerance))
+                        .subscribeOn(zoneClipScheduler), concurrency, PREFETCH);
+    }
+}
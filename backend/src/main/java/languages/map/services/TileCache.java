@@ -0,0 +1,88 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of encoded vector tiles. Tiles of a year are dropped whenever a zone of that year changes.
+ */
+@Component
+public class TileCache {
+    private final Map<TileKey, byte[]> tiles;
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TileCache(@Value("${map.tiles.cache-size:4096}") int maxTiles) {
+        this.tiles = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, byte[]> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    /**
+     * @return the cached tile, or the freshly rendered one; a tile rendered while its year changed is not cached
+     */
+    public byte[] getOrRender(TileKey key, Supplier<byte[]> renderer) {
+        synchronized (tiles) {
+            byte[] cached = tiles.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long generation = generation(key.year()).get();
+        byte[] rendered = renderer.get();
+        synchronized (tiles) {
+            if (generation(key.year()).get() == generation) {
+                tiles.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    @EventListener
+    @Order(ZoneDatasetVersions.STATE_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        if (event.operation() == LanguagesZoneChangedEvent.Operation.CLEARED
+                || (event.year() == null && event.previousYear() == null)) {
+            invalidateAll();
+            return;
+        }
+        if (event.year() != null) {
+            invalidate(event.year());
+        }
+        if (event.previousYear() != null) {
+            invalidate(event.previousYear());
+        }
+    }
+
+    private void invalidate(Integer year) {
+        synchronized (tiles) {
+            generation(year).incrementAndGet();
+            tiles.keySet().removeIf(key -> key.year() == year);
+        }
+    }
+
+    private void invalidateAll() {
+        synchronized (tiles) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            tiles.clear();
+        }
+    }
+
+    private AtomicLong generation(int year) {
+        return generations.computeIfAbsent(year, y -> new AtomicLong());
+    }
+
+    public record TileKey(int year, int z, int x, int y) {
+    }
+}
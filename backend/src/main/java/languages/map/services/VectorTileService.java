@@ -0,0 +1,103 @@
+package languages.map.services;
+
+import languages.map.geometry.LevelOfDetail;
+import languages.map.geometry.TileMath;
+import languages.map.models.LanguagesZone;
+import languages.map.serializers.VectorTileEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders zones of a year into Mapbox Vector Tiles and keeps them in {@link TileCache}.
+ */
+@Service
+public class VectorTileService {
+    private static final Logger logger = LoggerFactory.getLogger(VectorTileService.class);
+    public static final String LAYER_NAME = "zones";
+    private static final int EXTENT = 4096;
+    private static final int BUFFER = 64;
+
+    private final LanguagesZoneService languagesZoneService;
+    private final TileCache tileCache;
+
+    public VectorTileService(LanguagesZoneService languagesZoneService, TileCache tileCache) {
+        this.languagesZoneService = languagesZoneService;
+        this.tileCache = tileCache;
+    }
+
+    /**
+     * @return encoded tile, empty when no zone of the year reaches it
+     */
+    public byte[] getTile(int year, int z, int x, int y) {
+        return tileCache.getOrRender(new TileCache.TileKey(year, z, x, y), () -> renderTile(year, z, x, y));
+    }
+
+    private byte[] renderTile(int year, int z, int x, int y) {
+        List<LanguagesZone> zones = languagesZoneService.getLanguagesZone(
+                TileMath.bufferedTileEnvelope(z, x, y, EXTENT, BUFFER), LevelOfDetail.toleranceForZoom(z), year);
+        TileMath.Projection projection = new TileMath.Projection(z, x, y, EXTENT);
+        VectorTileEncoder encoder = new VectorTileEncoder(LAYER_NAME, EXTENT);
+        for (LanguagesZone zone : zones) {
+            List<int[]> rings = new ArrayList<>(zone.getCoords().size());
+            for (GeoJsonPolygon polygon : zone.getCoords()) {
+                int[] ring = toTileRing(polygon, projection);
+                if (ring.length >= 6) {
+                    rings.add(ring);
+                }
+            }
+            encoder.addPolygonFeature(attributes(zone), rings);
+        }
+        byte[] tile = encoder.encode();
+        logger.debug("Rendered tile {}/{}/{}/{} with {} zones, {} bytes", year, z, x, y, zones.size(), tile.length);
+        return tile;
+    }
+
+    /**
+     * Quantizes a ring to the tile grid, dropping repeated points and the closing point.
+     */
+    private static int[] toTileRing(GeoJsonPolygon polygon, TileMath.Projection projection) {
+        List<Point> points = polygon.getPoints();
+        int[] ring = new int[points.size() * 2];
+        int length = 0;
+        for (Point point : points) {
+            // Stored positions are latitude first
+            int tileX = projection.tileX(point.getY());
+            int tileY = projection.tileY(point.getX());
+            if (length > 0 && ring[length - 2] == tileX && ring[length - 1] == tileY) {
+                continue;
+            }
+            ring[length++] = tileX;
+            ring[length++] = tileY;
+        }
+        if (length >= 4 && ring[0] == ring[length - 2] && ring[1] == ring[length - 1]) {
+            length -= 2;
+        }
+        return Arrays.copyOf(ring, length);
+    }
+
+    private static Map<String, Object> attributes(LanguagesZone zone) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("id", zone.getId() == null ? null : zone.getId().toHexString());
+        attributes.put("name", zone.getName());
+        attributes.put("intensity", zone.getIntensity());
+        attributes.put("color", toHexColor(zone.getColor()));
+        attributes.put("year", zone.getYear());
+        return attributes;
+    }
+
+    private static String toHexColor(Integer[] color) {
+        if (color == null || color.length != 3 || color[0] == null || color[1] == null || color[2] == null) {
+            return null;
+        }
+        return String.format("#%02x%02x%02x", color[0], color[1], color[2]);
+    }
+}
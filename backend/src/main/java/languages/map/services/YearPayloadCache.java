@@ -0,0 +1,108 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized full-year responses, kept raw and gzip-compressed so {@code /api/all/{year}} becomes a byte write.
+ * Every payload remembers the dataset version it was built from and is rebuilt once the year has changed;
+ * zone change events additionally drop the stale payloads right away.
+ */
+@Component
+public class YearPayloadCache {
+    private final ZoneDatasetVersions zoneDatasetVersions;
+    private final ZoneMetrics zoneMetrics;
+    private final Map<PayloadKey, Payload> payloads;
+
+    /**
+     * @param maxPayloads most serialized year payloads kept, least recently used ones are dropped first
+     */
+    public YearPayloadCache(ZoneDatasetVersions zoneDatasetVersions, ZoneMetrics zoneMetrics,
+                            @Value("${map.zones.payload-cache.size:16}") int maxPayloads) {
+        this.zoneDatasetVersions = zoneDatasetVersions;
+        this.zoneMetrics = zoneMetrics;
+        this.payloads = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PayloadKey, Payload> eldest) {
+                return size() > maxPayloads;
+            }
+        };
+    }
+
+    /**
+     * @param year       year of areas
+     * @param format     name of the serialization, payloads of different formats are cached separately
+     * @param serializer builds the raw payload on a miss
+     * @return the payload for the current version of the year
+     */
+    public Payload getOrBuild(Integer year, String format, Supplier<byte[]> serializer) {
+        PayloadKey key = new PayloadKey(year, format);
+        String version = zoneDatasetVersions.version(year);
+        synchronized (payloads) {
+            Payload cached = payloads.get(key);
+            if (cached != null && cached.version().equals(version)) {
+                return cached;
+            }
+        }
+        Payload payload = zoneMetrics.timeSerialize(format, () -> {
+            byte[] raw = serializer.get();
+            return new Payload(version, raw, gzip(raw));
+        });
+        synchronized (payloads) {
+            payloads.put(key, payload);
+        }
+        return payload;
+    }
+
+    @EventListener
+    @Order(ZoneDatasetVersions.STATE_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        synchronized (payloads) {
+            if (event.operation() == LanguagesZoneChangedEvent.Operation.CLEARED
+                    || (event.year() == null && event.previousYear() == null)) {
+                payloads.clear();
+                return;
+            }
+            payloads.keySet().removeIf(key -> Objects.equals(key.year(), event.year())
+                    || Objects.equals(key.year(), event.previousYear()));
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param version dataset version of the year the payload was built from
+     * @param raw     serialized response
+     * @param gzip    the same response gzip-compressed
+     */
+    public record Payload(String version, byte[] raw, byte[] gzip) {
+    }
+
+    private record PayloadKey(Integer year, String format) {
+    }
+}
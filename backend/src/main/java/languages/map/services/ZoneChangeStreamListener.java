@@ -0,0 +1,336 @@
+package languages.map.services;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import languages.map.events.ChunkChangedEvent;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.events.ZoneBulkWriteEvent;
+import languages.map.models.LanguagesZone;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the {@code languagesZone} and {@code chunk} collections through a MongoDB change stream and publishes
+ * writes of other instances as the same events local writes publish, so their caches, indexes and STOMP topics
+ * stay coherent without sticky sessions.
+ * <ul>
+ *     <li>Echoes of this instance's own writes, bulk writes included, are recognised by id and zone version
+ *     and skipped.</li>
+ *     <li>More than {@code bulk-threshold} zone changes of one year in a batch, as from imports and bulk deletes,
+ *     are published as one {@link LanguagesZoneChangedEvent.Operation#RELOADED} of the year.</li>
+ *     <li>The resume token is stored per instance id, so a restart continues where the stream stopped; when the
+ *     oplog no longer reaches back that far everything cached is dropped instead.</li>
+ * </ul>
+ * Change streams need a replica set; pre-images of {@code languagesZone} are switched on at startup where permitted,
+ * without them deletes and year moves of other instances invalidate every year.
+ */
+@Component
+@Profile("!inmemory")
+@ConditionalOnProperty(name = "map.zones.change-stream.enabled", havingValue = "true")
+public class ZoneChangeStreamListener implements SmartLifecycle {
+    private static final String TOKENS_COLLECTION = "changeStreamResumeTokens";
+    private static final Logger logger = LoggerFactory.getLogger(ZoneChangeStreamListener.class);
+    private static final String ZONES_COLLECTION = ZoneChangeTranslator.ZONES_COLLECTION;
+    private static final String CHUNKS_COLLECTION = ZoneChangeTranslator.CHUNKS_COLLECTION;
+    private static final int MAX_BATCH = 1000;
+    /**
+     * Ids whose echo is awaited at a time; enough for large imports, whose surplus echoes are reloads anyway.
+     */
+    private static final int LOCAL_WRITES = 100_000;
+    /**
+     * How long an echo is awaited; far above the change stream's usual lag of milliseconds.
+     */
+    private static final long LOCAL_WRITE_TTL_MILLIS = 120_000;
+    private static final long TOKEN_SAVE_INTERVAL_MILLIS = 10_000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    /**
+     * Longer than the one second await of the cursor, after which the stream thread sees the stop.
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 2_500;
+    /**
+     * ChangeStreamFatalError and ChangeStreamHistoryLost: the stored token can't be resumed from.
+     */
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(280, 286);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId;
+    private final LocalWrites localWrites = new LocalWrites(LOCAL_WRITES, LOCAL_WRITE_TTL_MILLIS);
+    private final ZoneChangeTranslator translator;
+    private volatile boolean running;
+    private volatile Thread thread;
+    private BsonDocument resumeToken;
+    private long tokenSavedAt;
+
+    /**
+     * @param instanceId    keys the stored resume token; must be stable across restarts of the same instance
+     * @param bulkThreshold zone changes of one year in a batch above which the year is reloaded as a whole
+     */
+    public ZoneChangeStreamListener(MongoTemplate mongoTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${map.instance-id:${HOSTNAME:local}}") String instanceId,
+                                    @Value("${map.zones.change-stream.bulk-threshold:50}") int bulkThreshold) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.instanceId = instanceId;
+        this.translator = new ZoneChangeTranslator(
+                document -> mongoTemplate.getConverter().read(LanguagesZone.class, document), localWrites,
+                bulkThreshold);
+    }
+
+    @EventListener
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        if (Thread.currentThread() == thread || event.id() == null) {
+            return;
+        }
+        if (event.operation() == LanguagesZoneChangedEvent.Operation.DELETED) {
+            localWrites.deleted(event.id());
+        } else {
+            Long version = event.zone() != null ? event.zone().getVersion() : null;
+            localWrites.written(event.id(), version != null ? version : LocalWrites.ANY_VERSION);
+        }
+    }
+
+    /**
+     * Bulk writes publish only a reload of the year afterwards, so their zones are remembered up front.
+     */
+    @EventListener
+    public void onZoneBulkWrite(ZoneBulkWriteEvent event) {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        for (ObjectId id : event.ids()) {
+            if (event.deleted()) {
+                localWrites.deleted(id);
+            } else {
+                localWrites.written(id, event.version() != null ? event.version() : LocalWrites.ANY_VERSION);
+            }
+        }
+    }
+
+    @EventListener
+    public void onChunkChanged(ChunkChangedEvent event) {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        if (event.deleted()) {
+            localWrites.deleted(event.id());
+        } else {
+            localWrites.written(event.id(), LocalWrites.ANY_VERSION);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread streamThread = new Thread(this::run, "zone-change-stream");
+        streamThread.setDaemon(true);
+        thread = streamThread;
+        streamThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread streamThread = thread;
+        if (streamThread != null) {
+            try {
+                streamThread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        enablePreImages();
+        resumeToken = loadResumeToken();
+        long backoff = 1000;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                logger.info("Following {} and {} changes as instance {}{}", ZONES_COLLECTION, CHUNKS_COLLECTION,
+                        instanceId, resumeToken != null ? ", resuming from stored token" : "");
+                backoff = 1000;
+                while (running) {
+                    List<ChangeStreamDocument<Document>> batch = nextBatch(cursor);
+                    if (!batch.isEmpty()) {
+                        apply(batch);
+                    }
+                    advanceResumeToken(cursor.getResumeToken(), !batch.isEmpty());
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                if (restartWithoutToken(e)) {
+                    continue;
+                }
+                logger.error("Change stream failed, reopening in {} ms", backoff, e);
+                if (!sleep(backoff)) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        if (resumeToken != null) {
+            saveResumeToken(resumeToken);
+        }
+    }
+
+    /**
+     * When the stored token is past the oplog, drops everything cached and follows the stream from now on.
+     *
+     * @return whether the failure was handled so
+     */
+    boolean restartWithoutToken(RuntimeException failure) {
+        if (!(failure instanceof MongoException mongoException)
+                || !HISTORY_LOST_CODES.contains(mongoException.getCode())) {
+            return false;
+        }
+        logger.warn("Change stream of instance {} can't resume from its token, dropping all cached zones",
+                instanceId, failure);
+        resumeToken = null;
+        publish(LanguagesZoneChangedEvent.cleared());
+        return true;
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", ZONES_COLLECTION, CHUNKS_COLLECTION))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.startAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * @return changes already on hand, waiting at most the await time for the first one
+     */
+    private static List<ChangeStreamDocument<Document>> nextBatch(
+            MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        List<ChangeStreamDocument<Document>> batch = new ArrayList<>();
+        ChangeStreamDocument<Document> change = cursor.tryNext();
+        while (change != null) {
+            batch.add(change);
+            if (batch.size() == MAX_BATCH || cursor.available() == 0) {
+                break;
+            }
+            change = cursor.tryNext();
+        }
+        return batch;
+    }
+
+    /**
+     * Publishes the batch, replacing the zone changes of busy years by one reload of the year.
+     */
+    private void apply(List<ChangeStreamDocument<Document>> batch) {
+        List<ZoneChangeTranslator.Change> changes = new ArrayList<>(batch.size());
+        for (ChangeStreamDocument<Document> change : batch) {
+            changes.add(ZoneChangeTranslator.Change.of(change));
+        }
+        translator.translate(changes).forEach(this::publish);
+    }
+
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            logger.warn("Listener failed on change stream event {}", event, e);
+        }
+    }
+
+    private void enablePreImages() {
+        try {
+            mongoTemplate.getDb().runCommand(new Document("collMod", ZONES_COLLECTION)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (MongoException e) {
+            logger.warn("Pre-images of {} are off, year moves and deletes of other instances invalidate all years: {}",
+                    ZONES_COLLECTION, e.getMessage());
+        }
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getDb().getCollection(TOKENS_COLLECTION, BsonDocument.class);
+    }
+
+    private BsonDocument loadResumeToken() {
+        try {
+            BsonDocument stored = tokens().find(Filters.eq("_id", instanceId)).first();
+            return stored != null && stored.isDocument("token") ? stored.getDocument("token") : null;
+        } catch (MongoException e) {
+            logger.warn("Failed to load the change stream resume token of instance {}", instanceId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the token right after applied changes and otherwise at most every 10 seconds,
+     * so an idle stream doesn't write once per await.
+     */
+    private void advanceResumeToken(BsonDocument token, boolean applied) {
+        if (token == null || token.equals(resumeToken)) {
+            return;
+        }
+        resumeToken = token;
+        if (applied || System.currentTimeMillis() - tokenSavedAt >= TOKEN_SAVE_INTERVAL_MILLIS) {
+            saveResumeToken(token);
+        }
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        try {
+            tokens().replaceOne(Filters.eq("_id", instanceId),
+                    new BsonDocument("_id", new BsonString(instanceId))
+                            .append("token", token)
+                            .append("savedAt", new BsonDateTime(System.currentTimeMillis())),
+                    new ReplaceOptions().upsert(true));
+            tokenSavedAt = System.currentTimeMillis();
+        } catch (MongoException e) {
+            logger.warn("Failed to store the change stream resume token of instance {}", instanceId, e);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
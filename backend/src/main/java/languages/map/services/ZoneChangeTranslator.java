@@ -0,0 +1,193 @@
+package languages.map.services;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import languages.map.events.ChunkChangedEvent;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Turns a batch of change stream documents into the events {@link ZoneChangeStreamListener} publishes:
+ * echoes of local writes are dropped, and more than {@code bulkThreshold} zone changes of one year become one
+ * {@link LanguagesZoneChangedEvent.Operation#RELOADED} of the year.
+ */
+final class ZoneChangeTranslator {
+    static final String ZONES_COLLECTION = "languagesZone";
+    static final String CHUNKS_COLLECTION = "chunk";
+    private static final Logger logger = LoggerFactory.getLogger(ZoneChangeTranslator.class);
+    private final Function<Document, LanguagesZone> reader;
+    private final LocalWrites localWrites;
+    private final int bulkThreshold;
+
+    /**
+     * @param reader maps a stored zone document to the model
+     */
+    ZoneChangeTranslator(Function<Document, LanguagesZone> reader, LocalWrites localWrites, int bulkThreshold) {
+        this.reader = reader;
+        this.localWrites = localWrites;
+        this.bulkThreshold = bulkThreshold;
+    }
+
+    /**
+     * @return events to publish for the batch, in order, with the reloads of busy years last
+     */
+    List<Object> translate(List<Change> batch) {
+        List<Object> events = new ArrayList<>(batch.size());
+        for (Change change : batch) {
+            try {
+                Object event = toEvent(change);
+                if (event != null) {
+                    events.add(event);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Skipping unreadable {} change of {}", change.operationType(), change.id(), e);
+            }
+        }
+
+        Map<Integer, Integer> changesPerYear = new HashMap<>();
+        int changesWithoutYear = 0;
+        for (Object event : events) {
+            if (event instanceof LanguagesZoneChangedEvent zoneEvent && zoneEvent.id() != null) {
+                if (zoneEvent.year() == null && zoneEvent.previousYear() == null) {
+                    changesWithoutYear++;
+                }
+                if (zoneEvent.year() != null) {
+                    changesPerYear.merge(zoneEvent.year(), 1, Integer::sum);
+                }
+                if (zoneEvent.previousYear() != null && !zoneEvent.previousYear().equals(zoneEvent.year())) {
+                    changesPerYear.merge(zoneEvent.previousYear(), 1, Integer::sum);
+                }
+            }
+        }
+        Set<Integer> reloadedYears = new HashSet<>();
+        changesPerYear.forEach((year, count) -> {
+            if (count > bulkThreshold) {
+                reloadedYears.add(year);
+            }
+        });
+        boolean clearAll = changesWithoutYear > bulkThreshold;
+
+        List<Object> published = new ArrayList<>(events.size());
+        for (Object event : events) {
+            if (!(event instanceof LanguagesZoneChangedEvent zoneEvent) || zoneEvent.id() == null
+                    || !coveredByBulk(zoneEvent, reloadedYears, clearAll)) {
+                published.add(event);
+            }
+        }
+        if (clearAll) {
+            published.add(LanguagesZoneChangedEvent.cleared());
+        } else {
+            reloadedYears.forEach(year -> published.add(LanguagesZoneChangedEvent.reloaded(year)));
+        }
+        logger.debug("Translated {} of {} changes from the change stream, reloaded years {}{}",
+                events.size(), batch.size(), reloadedYears, clearAll ? ", cleared all" : "");
+        return published;
+    }
+
+    private static boolean coveredByBulk(LanguagesZoneChangedEvent event, Set<Integer> reloadedYears,
+                                         boolean clearAll) {
+        if (clearAll) {
+            return true;
+        }
+        if (event.year() == null && event.previousYear() == null) {
+            return false;
+        }
+        return (event.year() == null || reloadedYears.contains(event.year()))
+                && (event.previousYear() == null || reloadedYears.contains(event.previousYear()));
+    }
+
+    /**
+     * @return local event for the change, null for echoes of local writes and changes without effect
+     */
+    private Object toEvent(Change change) {
+        switch (change.operationType()) {
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                return CHUNKS_COLLECTION.equals(change.collection()) ? null : LanguagesZoneChangedEvent.cleared();
+            }
+            case INSERT, UPDATE, REPLACE, DELETE -> {
+                // handled below
+            }
+            default -> {
+                return null;
+            }
+        }
+        ObjectId id = change.id();
+        if (id == null) {
+            return null;
+        }
+        boolean deleted = change.operationType() == OperationType.DELETE;
+
+        if (CHUNKS_COLLECTION.equals(change.collection())) {
+            boolean echo = deleted ? localWrites.isDeleteEcho(id) : localWrites.isWriteEcho(id, null);
+            return echo ? null : new ChunkChangedEvent(id, deleted);
+        }
+
+        LanguagesZone previous = change.fullDocumentBeforeChange() != null
+                ? reader.apply(change.fullDocumentBeforeChange())
+                : null;
+        Integer previousYear = previous != null ? previous.getYear() : null;
+        Envelope previousEnvelope = previous != null ? nonEmpty(ZoneGeometries.envelopeOf(previous)) : null;
+        if (deleted) {
+            return localWrites.isDeleteEcho(id) ? null
+                    : LanguagesZoneChangedEvent.deleted(id, previousYear, previousEnvelope);
+        }
+
+        if (change.fullDocument() == null) {
+            // deleted again before the lookup; its delete follows
+            return null;
+        }
+        LanguagesZone zone = reader.apply(change.fullDocument());
+        if (localWrites.isWriteEcho(id, zone.getVersion())) {
+            return null;
+        }
+        if (change.operationType() == OperationType.INSERT) {
+            return LanguagesZoneChangedEvent.saved(zone);
+        }
+        return LanguagesZoneChangedEvent.updated(zone, previousYear, previousEnvelope);
+    }
+
+    private static Envelope nonEmpty(Envelope envelope) {
+        return envelope.isNull() ? null : envelope;
+    }
+
+    /**
+     * The parts of a change stream document the translation looks at.
+     *
+     * @param collection               collection the change happened in, null for database-wide events
+     * @param id                       ObjectId {@code _id} of the changed document, null when it has none
+     * @param fullDocument             document after the change as looked up, null when unavailable
+     * @param fullDocumentBeforeChange pre-image, null when pre-images are off
+     */
+    record Change(OperationType operationType, String collection, ObjectId id, Document fullDocument,
+                  Document fullDocumentBeforeChange) {
+
+        static Change of(ChangeStreamDocument<Document> change) {
+            return new Change(change.getOperationType(),
+                    change.getNamespace() != null ? change.getNamespace().getCollectionName() : null,
+                    documentId(change.getDocumentKey()),
+                    change.getFullDocument(),
+                    change.getFullDocumentBeforeChange());
+        }
+
+        private static ObjectId documentId(BsonDocument documentKey) {
+            BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+            return id != null && id.isObjectId() ? id.asObjectId().getValue() : null;
+        }
+    }
+}
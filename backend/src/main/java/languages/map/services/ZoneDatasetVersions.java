@@ -0,0 +1,82 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-year dataset version counters, bumped on every zone write of the year, and the strong ETags derived from them.
+ * The boot time is part of every tag, so tags handed out before a restart are never matched again.
+ * Versions move after the zone index and caches applied a write, so a response built from stale state is never
+ * tagged with the new version; those listeners run at {@link #STATE_ORDER}. Notifiers telling clients to refetch
+ * run at {@link #NOTIFY_ORDER}, once the new version is in place.
+ */
+@Component
+public class ZoneDatasetVersions {
+    /**
+     * Listener order of the zone state versions cover, ahead of the version bump.
+     */
+    public static final int STATE_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+    /**
+     * Listener order of the version bump, after the zone state and before the notifiers.
+     */
+    public static final int VERSION_ORDER = Ordered.LOWEST_PRECEDENCE - 50;
+    /**
+     * Listener order of notifiers sending a write to clients, after the version bump.
+     */
+    public static final int NOTIFY_ORDER = Ordered.LOWEST_PRECEDENCE;
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong global = new AtomicLong();
+    private final Map<Integer, AtomicLong> years = new ConcurrentHashMap<>();
+
+    /**
+     * @param year year of areas
+     * @return current version of the year; changes whenever any zone of the year is written
+     */
+    public String version(Integer year) {
+        AtomicLong counter = years.get(year);
+        return epoch + "." + global.get() + "." + (counter != null ? counter.get() : 0);
+    }
+
+    /**
+     * @param year       year of areas
+     * @param parameters request parameters that shape the response, arrays are compared by content
+     * @return quoted strong ETag for the current version of the year and the given parameters
+     */
+    public String etag(Integer year, Object... parameters) {
+        String key = version(year) + "|" + year + "|" + Arrays.deepToString(parameters);
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @EventListener
+    @Order(VERSION_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        if (event.operation() == LanguagesZoneChangedEvent.Operation.CLEARED
+                || (event.year() == null && event.previousYear() == null)) {
+            global.incrementAndGet();
+            return;
+        }
+        if (event.year() != null) {
+            counter(event.year()).incrementAndGet();
+        }
+        if (event.previousYear() != null) {
+            counter(event.previousYear()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Counters exist only for written years; years never written are at version 0.
+     */
+    private AtomicLong counter(Integer year) {
+        return years.computeIfAbsent(year, y -> new AtomicLong());
+    }
+}
@@ -0,0 +1,186 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Validated JTS geometries of zones, keyed by zone id and checked against the zone version,
+ * so each zone is converted and repaired once instead of on every request.
+ * Next to the full geometry every entry holds a level-of-detail pyramid simplified with
+ * {@link TopologyPreservingSimplifier} at the configured tolerances; written zones are built eagerly.
+ * At most {@code maxZones} zones are held, least recently used first out; a reload of a year drops its zones.
+ */
+@Component
+public class ZoneGeometryCache {
+    private static final Logger logger = LoggerFactory.getLogger(ZoneGeometryCache.class);
+    /**
+     * Guarded by itself; geometries are built outside the lock.
+     */
+    private final Map<ObjectId, Entry> entries;
+    private final double[] tolerances;
+
+    /**
+     * @param tolerances simplification tolerances in degrees, one pyramid level each
+     * @param maxZones   most zones whose geometries are kept
+     */
+    public ZoneGeometryCache(@Value("${map.zones.lod.tolerances:0.001,0.01,0.05,0.2}") double[] tolerances,
+                             @Value("${map.zones.geometry-cache.size:20000}") int maxZones) {
+        this.tolerances = Arrays.stream(tolerances).filter(tolerance -> tolerance > 0).sorted().toArray();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ObjectId, Entry> eldest) {
+                return size() > maxZones;
+            }
+        };
+    }
+
+    /**
+     * @param zone zone to convert
+     * @return one valid geometry per usable polygon of the zone, in stored order
+     */
+    public List<Geometry> get(LanguagesZone zone) {
+        return get(zone, 0);
+    }
+
+    /**
+     * @param zone      zone to convert
+     * @param tolerance largest acceptable simplification in degrees
+     * @return geometries of the coarsest pyramid level within the tolerance
+     */
+    public List<Geometry> get(LanguagesZone zone, double tolerance) {
+        return entry(zone).level(levelFor(tolerance));
+    }
+
+    @EventListener
+    @Order(ZoneDatasetVersions.STATE_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        switch (event.operation()) {
+            case CLEARED -> {
+                synchronized (entries) {
+                    entries.clear();
+                }
+            }
+            case RELOADED -> {
+                synchronized (entries) {
+                    if (event.year() == null) {
+                        entries.clear();
+                    } else {
+                        entries.values().removeIf(entry -> Objects.equals(entry.year(), event.year()));
+                    }
+                }
+            }
+            default -> {
+                synchronized (entries) {
+                    entries.remove(event.id());
+                }
+                if (event.zone() != null) {
+                    entry(event.zone());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of zones held
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry entry(LanguagesZone zone) {
+        if (zone.getId() == null) {
+            return build(zone);
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(zone.getId());
+        }
+        if (entry != null && entry.matches(zone)) {
+            return entry;
+        }
+        entry = build(zone);
+        synchronized (entries) {
+            entries.put(zone.getId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return 0 for full resolution, otherwise 1 + index of the largest tolerance not above the given one
+     */
+    private int levelFor(double tolerance) {
+        int level = 0;
+        for (int i = 0; i < tolerances.length && tolerances[i] <= tolerance; i++) {
+            level = i + 1;
+        }
+        return level;
+    }
+
+    private Entry build(LanguagesZone zone) {
+        List<Geometry> full = buildFull(zone);
+        List<List<Geometry>> levels = new ArrayList<>(tolerances.length + 1);
+        levels.add(full);
+        for (double tolerance : tolerances) {
+            List<Geometry> simplified = new ArrayList<>(full.size());
+            for (Geometry geometry : full) {
+                Geometry result = TopologyPreservingSimplifier.simplify(geometry, tolerance);
+                if (!result.isEmpty()) {
+                    simplified.add(result);
+                }
+            }
+            levels.add(List.copyOf(simplified));
+        }
+        return new Entry(zone.getYear(), zone.getVersion(), List.copyOf(levels));
+    }
+
+    private static List<Geometry> buildFull(LanguagesZone zone) {
+        if (zone.getCoords() == null) {
+            return List.of();
+        }
+        List<Geometry> geometries = new ArrayList<>(zone.getCoords().size());
+        for (GeoJsonPolygon geoJsonPolygon : zone.getCoords()) {
+            Polygon polygon = ZoneGeometries.toPolygon(geoJsonPolygon);
+            if (polygon == null) {
+                logger.warn("Skipping degenerate polygon of zone {}", zone.getId());
+                continue;
+            }
+            geometries.add(polygon.isValid() ? polygon : polygon.buffer(0));
+        }
+        return List.copyOf(geometries);
+    }
+
+    /**
+     * @param year    year of the zone the geometries were built for, a reload of the year drops them
+     * @param version version of the zone the geometries were built for
+     */
+    private record Entry(Integer year, Long version, List<List<Geometry>> levels) {
+        boolean matches(LanguagesZone zone) {
+            return Objects.equals(year, zone.getYear()) && Objects.equals(version, zone.getVersion());
+        }
+
+        List<Geometry> level(int level) {
+            return levels.get(level);
+        }
+    }
+}
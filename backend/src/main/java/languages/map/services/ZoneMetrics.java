@@ -0,0 +1,122 @@
+package languages.map.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the zone pipeline, split into its stages so a slow request can be attributed to the candidate fetch,
+ * the clipping or the serialization. Meters of the clip path are registered once, so recording them does no lookup.
+ * <ul>
+ *     <li>{@code map.zones.fetch}, tagged {@code source}: loading the candidate zones of a request</li>
+ *     <li>{@code map.zones.clip}: clipping and simplifying one zone</li>
+ *     <li>{@code map.zones.clip.vertices}, tagged {@code direction}: vertices before and after clipping a zone</li>
+ *     <li>{@code map.zones.clip.empty}: zones with nothing left inside the bounding box</li>
+ *     <li>{@code map.zones.serialize}, tagged {@code format}: building a cached full-year payload,
+ *     including the fetch of the year</li>
+ *     <li>{@code map.http.response.bytes}, tagged {@code uri} and {@code format}: bytes written per response</li>
+ * </ul>
+ */
+@Component
+public class ZoneMetrics {
+    private final MeterRegistry meterRegistry;
+    private final Map<ZoneQueryMode, Timer> candidateFetchTimers = new EnumMap<>(ZoneQueryMode.class);
+    private final Timer yearFetchTimer;
+    private final Timer clipTimer;
+    private final DistributionSummary verticesIn;
+    private final DistributionSummary verticesOut;
+    private final Counter emptyClips;
+
+    public ZoneMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (ZoneQueryMode mode : ZoneQueryMode.values()) {
+            candidateFetchTimers.put(mode, fetchTimer(mode.name().toLowerCase()));
+        }
+        this.yearFetchTimer = fetchTimer("year");
+        this.clipTimer = Timer.builder("map.zones.clip")
+                .description("Clipping and simplification of one zone")
+                .register(meterRegistry);
+        this.verticesIn = vertices("in");
+        this.verticesOut = vertices("out");
+        this.emptyClips = Counter.builder("map.zones.clip.empty")
+                .description("Zones without any polygon left inside the bounding box")
+                .register(meterRegistry);
+    }
+
+    private Timer fetchTimer(String source) {
+        return Timer.builder("map.zones.fetch")
+                .description("Loading the candidate zones of a request")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary vertices(String direction) {
+        return DistributionSummary.builder("map.zones.clip.vertices")
+                .description("Vertices of one zone before and after clipping")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param mode  lookup the candidates come from
+     * @param fetch loads the candidates
+     */
+    public <T> T timeCandidateFetch(ZoneQueryMode mode, Supplier<T> fetch) {
+        return candidateFetchTimers.get(mode).record(fetch);
+    }
+
+    /**
+     * @param fetch loads all zones of a year
+     */
+    public <T> T timeYearFetch(Supplier<T> fetch) {
+        return yearFetchTimer.record(fetch);
+    }
+
+    /**
+     * @param nanos       time spent clipping the zone
+     * @param verticesIn  vertices of the zone geometries at the requested level of detail
+     * @param verticesOut vertices of the clipped polygons, 0 when the zone was dropped
+     */
+    public void recordClip(long nanos, int verticesIn, int verticesOut) {
+        clipTimer.record(nanos, TimeUnit.NANOSECONDS);
+        this.verticesIn.record(verticesIn);
+        this.verticesOut.record(verticesOut);
+        if (verticesOut == 0) {
+            emptyClips.increment();
+        }
+    }
+
+    /**
+     * @param format    payload format as cached by {@link YearPayloadCache}
+     * @param serialize builds the payload
+     */
+    public <T> T timeSerialize(String format, Supplier<T> serialize) {
+        return Timer.builder("map.zones.serialize")
+                .description("Fetch, serialization and compression of a full-year payload")
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(serialize);
+    }
+
+    /**
+     * @param uri    matched URI template, not the raw path, to keep the tag bounded
+     * @param format response content type without parameters
+     * @param bytes  bytes written to the response body, after compression
+     */
+    public void recordResponseBytes(String uri, String format, long bytes) {
+        DistributionSummary.builder("map.http.response.bytes")
+                .description("Bytes written per response body")
+                .baseUnit("bytes")
+                .tag("uri", uri)
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
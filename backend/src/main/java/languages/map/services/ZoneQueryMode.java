@@ -0,0 +1,22 @@
+package languages.map.services;
+
+/**
+ * Where {@link LanguagesZoneService} looks up the zones near a bounding box,
+ * selected with {@code map.zones.bbox-query}.
+ */
+public enum ZoneQueryMode {
+    /**
+     * In-memory {@link LanguagesZoneIndex}, loaded once per year.
+     */
+    INDEX,
+    /**
+     * {@code $geoIntersects} query of the zones' {@code [lon, lat]} envelopes against the year + 2dsphere index
+     * in MongoDB. The area is padded for the geodesic edges, and clipping drops the extra candidates.
+     */
+    GEO,
+    /**
+     * Covered query for the ids of envelope-overlapping zones on the year + envelope index in MongoDB,
+     * then one {@code $in} load of those zones.
+     */
+    ENVELOPE
+}
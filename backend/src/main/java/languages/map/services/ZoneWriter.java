@@ -0,0 +1,13 @@
+package languages.map.services;
+
+import languages.map.models.LanguagesZone;
+
+import java.io.IOException;
+
+/**
+ * Receives zones one at a time from the streaming methods of {@link LanguagesZoneService}.
+ */
+@FunctionalInterface
+public interface ZoneWriter {
+    void write(LanguagesZone zone) throws IOException;
+}
@@ -0,0 +1,245 @@
+package languages.map.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds what the {@code clientOutboundChannel} holds per session before the transport takes it over.
+ * <ul>
+ *     <li>Messages carrying the same {@value #COALESCE_KEY_HEADER} native header, or sent to one of the coalesced
+ *     destinations, supersede each other: a queued message is skipped once a newer one with its key is queued.</li>
+ *     <li>A session with more than {@code max-lag-messages} or {@code max-lag-bytes} queued is disconnected,
+ *     as is the session whose message would take all sessions past {@code max-buffered-bytes}.
+ *     Clients reconnect and ask again instead of silently missing messages.</li>
+ * </ul>
+ * Meters: {@code map.ws.outbound.buffered.bytes} and {@code map.ws.outbound.buffered.messages} (gauges),
+ * {@code map.ws.outbound.coalesced} and {@code map.ws.outbound.disconnects} tagged {@code reason}.
+ */
+@Component
+public class OutboundSessionLimiter implements ExecutorChannelInterceptor {
+    public static final String COALESCE_KEY_HEADER = "coalesce-key";
+    private static final String SEQUENCE_HEADER = "outboundSequence";
+    private static final Logger logger = LoggerFactory.getLogger(OutboundSessionLimiter.class);
+    private final int maxLagMessages;
+    private final long maxLagBytes;
+    private final long maxBufferedBytes;
+    private final Set<String> coalescedDestinations;
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicInteger bufferedMessages = new AtomicInteger();
+    private final Counter coalesced;
+    private final Counter lagDisconnects;
+    private final Counter memoryDisconnects;
+
+    /**
+     * @param maxLagMessages        queued messages per session before it is disconnected
+     * @param maxLagBytes           queued payload bytes per session before it is disconnected
+     * @param maxBufferedBytes      queued payload bytes of all sessions together
+     * @param coalescedDestinations destinations whose every message supersedes the previous one
+     */
+    public OutboundSessionLimiter(MeterRegistry meterRegistry,
+                                  @Value("${map.ws.outbound.max-lag-messages:1000}") int maxLagMessages,
+                                  @Value("${map.ws.outbound.max-lag-bytes:4194304}") long maxLagBytes,
+                                  @Value("${map.ws.outbound.max-buffered-bytes:67108864}") long maxBufferedBytes,
+                                  @Value("${map.ws.outbound.coalesce-destinations:/topic/heartbeat}")
+                                  String[] coalescedDestinations) {
+        this.maxLagMessages = maxLagMessages;
+        this.maxLagBytes = maxLagBytes;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.coalescedDestinations = Set.of(coalescedDestinations);
+        Gauge.builder("map.ws.outbound.buffered.bytes", bufferedBytes, AtomicLong::get)
+                .description("Payload bytes queued for STOMP sessions and not yet handed to the transport")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("map.ws.outbound.buffered.messages", bufferedMessages, AtomicInteger::get)
+                .description("Messages queued for STOMP sessions and not yet handed to the transport")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("map.ws.outbound.coalesced")
+                .description("Queued messages skipped because a newer one with the same key was queued")
+                .register(meterRegistry);
+        this.lagDisconnects = disconnects(meterRegistry, "lag");
+        this.memoryDisconnects = disconnects(meterRegistry, "memory");
+    }
+
+    private static Counter disconnects(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("map.ws.outbound.disconnects")
+                .description("Sessions closed because their outbound queue grew past the limits")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers every WebSocket session so a lagging one can be closed, see
+     * {@link org.springframework.web.socket.config.annotation.WebSocketTransportRegistration#addDecoratorFactory}.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionQueue(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionQueue queue = sessionId != null ? sessions.get(sessionId) : null;
+        if (queue == null) {
+            return message;
+        }
+        if (queue.closing) {
+            return null;
+        }
+        long size = sizeOf(message);
+        if (queue.messages.get() >= maxLagMessages || queue.bytes.get() + size > maxLagBytes) {
+            disconnect(queue, lagDisconnects, "lag");
+            return null;
+        }
+        if (bufferedBytes.get() + size > maxBufferedBytes) {
+            disconnect(queue, memoryDisconnects, "memory");
+            return null;
+        }
+
+        long seq = sequence.incrementAndGet();
+        String key = coalesceKey(message);
+        if (key != null) {
+            queue.latest.put(key, seq);
+        }
+        queue.messages.incrementAndGet();
+        queue.bytes.addAndGet(size);
+        bufferedMessages.incrementAndGet();
+        bufferedBytes.addAndGet(size);
+        return MessageBuilder.fromMessage(message).setHeader(SEQUENCE_HEADER, seq).build();
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (!message.getHeaders().containsKey(SEQUENCE_HEADER)) {
+            return message;
+        }
+        SessionQueue queue = queueOf(message);
+        String key = queue != null ? coalesceKey(message) : null;
+        if (key != null && !message.getHeaders().get(SEQUENCE_HEADER).equals(queue.latest.get(key))) {
+            // afterMessageHandled is not called for a message skipped here
+            release(queue, message);
+            coalesced.increment();
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        if (!message.getHeaders().containsKey(SEQUENCE_HEADER)) {
+            return;
+        }
+        SessionQueue queue = queueOf(message);
+        String key = queue != null ? coalesceKey(message) : null;
+        if (key != null) {
+            queue.latest.remove(key, message.getHeaders().get(SEQUENCE_HEADER));
+        }
+        release(queue, message);
+    }
+
+    /**
+     * @return queue of the message's session, null once the session is closed
+     */
+    private SessionQueue queueOf(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * @param queue queue of the message's session, null once the session is closed and its queue dropped
+     */
+    private void release(SessionQueue queue, Message<?> message) {
+        long size = sizeOf(message);
+        if (queue != null) {
+            queue.messages.decrementAndGet();
+            queue.bytes.addAndGet(-size);
+        }
+        bufferedMessages.decrementAndGet();
+        bufferedBytes.addAndGet(-size);
+    }
+
+    private String coalesceKey(Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String key = accessor.getFirstNativeHeader(COALESCE_KEY_HEADER);
+        if (key != null) {
+            return accessor.getDestination() + "|" + key;
+        }
+        String destination = accessor.getDestination();
+        return destination != null && coalescedDestinations.contains(destination) ? destination : null;
+    }
+
+    private static long sizeOf(Message<?> message) {
+        return message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+    }
+
+    private void disconnect(SessionQueue queue, Counter counter, String reason) {
+        synchronized (queue) {
+            if (queue.closing) {
+                return;
+            }
+            queue.closing = true;
+        }
+        counter.increment();
+        logger.warn("Closing STOMP session {} over the outbound {} limit with {} messages, {} bytes queued",
+                queue.session.getId(), reason, queue.messages.get(), queue.bytes.get());
+        try {
+            queue.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            logger.debug("Failed to close STOMP session {}", queue.session.getId(), e);
+        }
+    }
+
+    /**
+     * Messages of one session between the outbound channel and the transport.
+     */
+    private static final class SessionQueue {
+        private final WebSocketSession session;
+        private final AtomicInteger messages = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        /**
+         * Coalescing key to the sequence of the newest queued message with that key.
+         */
+        private final Map<String, Long> latest = new ConcurrentHashMap<>();
+        private volatile boolean closing;
+
+        private SessionQueue(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package languages.map.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open STOMP sessions, indexed by user name and by the years whose {@code /topic/zones/{year}} they subscribed,
+ * so messages can be sent to the sessions that want them instead of to every topic subscriber.
+ * <ul>
+ *     <li>Sessions are added when the WebSocket opens and removed when it closes or STOMP disconnects.</li>
+ *     <li>A sweep closes sessions without any inbound frame for {@code idle-timeout} and drops entries of sockets
+ *     that closed without notice. Past {@code max-sessions} new connections are refused.</li>
+ * </ul>
+ * Meters: {@code map.ws.sessions}, {@code map.ws.sessions.users}, {@code map.ws.sessions.subscriptions} and the
+ * estimated {@code map.ws.sessions.memory} (gauges), {@code map.ws.sessions.evicted} tagged {@code reason}.
+ */
+@Component
+public class SessionRegistry {
+    /**
+     * Rough heap of one entry and of one year subscription, for the memory gauge.
+     */
+    private static final long SESSION_BYTES = 512;
+    private static final long SUBSCRIPTION_BYTES = 96;
+    private static final CloseStatus IDLE = CloseStatus.SESSION_NOT_RELIABLE.withReason("idle");
+    private static final CloseStatus FULL = CloseStatus.SERVICE_OVERLOAD.withReason("too many sessions");
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final Map<String, SessionEntry> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> sessionsByYear = new ConcurrentHashMap<>();
+    private final Counter idleEvictions;
+    private final Counter staleEvictions;
+    private final Counter refused;
+
+    /**
+     * @param maxSessions        open sessions above which new connections are closed right away
+     * @param idleTimeoutSeconds time without an inbound frame, heart-beats included, after which a session is closed
+     */
+    public SessionRegistry(MeterRegistry meterRegistry,
+                           @Value("${map.ws.sessions.max:10000}") int maxSessions,
+                           @Value("${map.ws.sessions.idle-timeout-seconds:1800}") long idleTimeoutSeconds) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        Gauge.builder("map.ws.sessions", sessions, Map::size)
+                .description("Open STOMP sessions")
+                .register(meterRegistry);
+        Gauge.builder("map.ws.sessions.users", sessionsByUser, Map::size)
+                .description("Distinct user names with an open STOMP session")
+                .register(meterRegistry);
+        Gauge.builder("map.ws.sessions.subscriptions", this, SessionRegistry::subscriptionCount)
+                .description("Zone year subscriptions of open STOMP sessions")
+                .register(meterRegistry);
+        Gauge.builder("map.ws.sessions.memory", this, SessionRegistry::estimatedBytes)
+                .description("Estimated heap held by the session registry")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.idleEvictions = evictions(meterRegistry, "idle");
+        this.staleEvictions = evictions(meterRegistry, "stale");
+        this.refused = evictions(meterRegistry, "limit");
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("map.ws.sessions.evicted")
+                .description("Sessions closed or dropped by the registry")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds every WebSocket session on open, notes its inbound activity and removes it on close, see
+     * {@link org.springframework.web.socket.config.annotation.WebSocketTransportRegistration#addDecoratorFactory}.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                if (sessions.size() >= maxSessions) {
+                    refused.increment();
+                    logger.warn("Refusing STOMP session {}, {} sessions are open", session.getId(), sessions.size());
+                    session.close(FULL);
+                    return;
+                }
+                sessions.put(session.getId(), new SessionEntry(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session,
+                                      org.springframework.web.socket.WebSocketMessage<?> message) throws Exception {
+                SessionEntry entry = sessions.get(session.getId());
+                if (entry != null) {
+                    entry.lastSeen = System.nanoTime();
+                }
+                super.handleMessage(session, message);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        if (user != null) {
+            assignUser(SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()), user);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        remove(event.getSessionId());
+    }
+
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionEntry entry = entryOf(event.getMessage());
+        Integer year = zoneYear(accessor.getDestination());
+        if (entry == null || year == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        entry.years.put(accessor.getSubscriptionId(), year);
+        sessionsByYear.computeIfAbsent(year, y -> ConcurrentHashMap.newKeySet()).add(entry.session.getId());
+    }
+
+    @EventListener
+    public void onSessionUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionEntry entry = entryOf(event.getMessage());
+        if (entry == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Integer year = entry.years.remove(accessor.getSubscriptionId());
+        if (year != null && !entry.years.containsValue(year)) {
+            removeFromIndex(sessionsByYear, year, entry.session.getId());
+        }
+    }
+
+    /**
+     * Indexes the session under the name of its authenticated principal. Names a client declares itself, such as
+     * chat senders, must not be passed here: {@link #sessionsOfUser} routes private messages.
+     */
+    public void assignUser(String sessionId, Principal principal) {
+        SessionEntry entry = sessionId != null ? sessions.get(sessionId) : null;
+        String user = principal != null ? principal.getName() : null;
+        if (entry == null || user == null || user.equals(entry.user)) {
+            return;
+        }
+        if (entry.user != null) {
+            removeFromIndex(sessionsByUser, entry.user, sessionId);
+        }
+        entry.user = user;
+        sessionsByUser.computeIfAbsent(user, u -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    /**
+     * @return ids of the open sessions authenticated as the user, empty when there are none
+     */
+    public Set<String> sessionsOfUser(String user) {
+        return user != null ? Set.copyOf(sessionsByUser.getOrDefault(user, Set.of())) : Set.of();
+    }
+
+    /**
+     * @return whether any open session subscribed the zone changes of the year
+     */
+    public boolean hasSubscribers(Integer year) {
+        Set<String> subscribers = year != null ? sessionsByYear.get(year) : null;
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * @return mutable headers addressing a message sent with {@code convertAndSendToUser} at the one session,
+     * which also reaches anonymous sessions without a user name
+     */
+    public static SimpMessageHeaderAccessor sessionHeaders(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    /**
+     * Closes sessions idle past the timeout and drops entries of sockets that closed without a close callback.
+     */
+    @Scheduled(fixedDelayString = "${map.ws.sessions.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (SessionEntry entry : sessions.values()) {
+            if (!entry.session.isOpen()) {
+                remove(entry.session.getId());
+                staleEvictions.increment();
+            } else if (now - entry.lastSeen > idleTimeoutNanos) {
+                idleEvictions.increment();
+                logger.debug("Closing idle STOMP session {}", entry.session.getId());
+                try {
+                    entry.session.close(IDLE);
+                } catch (IOException e) {
+                    logger.debug("Failed to close idle STOMP session {}", entry.session.getId(), e);
+                }
+                remove(entry.session.getId());
+            }
+        }
+    }
+
+    private void remove(String sessionId) {
+        SessionEntry entry = sessionId != null ? sessions.remove(sessionId) : null;
+        if (entry == null) {
+            return;
+        }
+        if (entry.user != null) {
+            removeFromIndex(sessionsByUser, entry.user, sessionId);
+        }
+        for (Integer year : Set.copyOf(entry.years.values())) {
+            removeFromIndex(sessionsByYear, year, sessionId);
+        }
+    }
+
+    /**
+     * Removes the session from the key's set and the set once it is empty, so the indexes shrink with the sessions.
+     */
+    private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String sessionId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private SessionEntry entryOf(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * @return year of a {@code /topic/zones/{year}} destination, null for any other destination
+     */
+    static Integer zoneYear(String destination) {
+        String prefix = ZoneChangeBroadcaster.TOPIC + "/";
+        if (destination == null || !destination.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(destination.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int subscriptionCount() {
+        return sessions.values().stream().mapToInt(entry -> entry.years.size()).sum();
+    }
+
+    private long estimatedBytes() {
+        return sessions.size() * SESSION_BYTES + (long) subscriptionCount() * SUBSCRIPTION_BYTES;
+    }
+
+    private static final class SessionEntry {
+        private final WebSocketSession session;
+        /**
+         * Subscription id to the year of a {@code /topic/zones/{year}} subscription.
+         */
+        private final Map<String, Integer> years = new ConcurrentHashMap<>();
+        private volatile String user;
+        private volatile long lastSeen = System.nanoTime();
+
+        private SessionEntry(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
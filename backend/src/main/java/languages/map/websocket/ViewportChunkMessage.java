@@ -0,0 +1,24 @@
+package languages.map.websocket;
+
+import languages.map.models.LanguagesZone;
+
+import java.util.List;
+
+/**
+ * Zones of one viewport tile, pushed to {@code /user/queue/zones} of the subscribing session.
+ * Tiles with many vertices are split into several parts sent in order; part 0 replaces what the client holds
+ * for the tile and later parts add to it.
+ *
+ * @param year     year of the zones
+ * @param z        tile zoom level
+ * @param x        tile column
+ * @param y        tile row
+ * @param envelope tile bounds the zones are clipped to, as {@code [minLat, minLon, maxLat, maxLon]}
+ * @param version  dataset version of the year the zones were computed at
+ * @param part     index of this part of the tile, from 0
+ * @param parts    number of parts the tile was split into
+ * @param zones    zones clipped to the tile, empty when the tile has none
+ */
+public record ViewportChunkMessage(Integer year, int z, int x, int y, double[] envelope, String version,
+                                   int part, int parts, List<LanguagesZone> zones) {
+}
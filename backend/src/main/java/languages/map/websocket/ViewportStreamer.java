@@ -0,0 +1,237 @@
+package languages.map.websocket;
+
+import languages.map.geometry.LevelOfDetail;
+import languages.map.geometry.TileMath;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.models.LanguagesZone;
+import languages.map.services.LanguagesZoneService;
+import languages.map.services.ZoneDatasetVersions;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the zones of a session's viewport to {@code /user/queue/zones}, one tile at a time, nearest to the
+ * viewport centre first. Every session remembers which tiles it already received at which dataset version of
+ * the year, so a pan only computes and sends the tiles that came into view or changed since.
+ * A newer viewport of the same session stops the tiles still pending for the previous one.
+ * Tiles with more than {@code max-message-vertices} vertices are sent in parts, so no single frame grows
+ * past what {@link OutboundSessionLimiter} and the transport buffer allow.
+ */
+@Component
+public class ViewportStreamer {
+    public static final String QUEUE = "/queue/zones";
+    private static final Logger logger = LoggerFactory.getLogger(ViewportStreamer.class);
+    private static final int MAX_TILE_ZOOM = 12;
+    private final LanguagesZoneService languagesZoneService;
+    private final ZoneDatasetVersions zoneDatasetVersions;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxTiles;
+    private final int deliveredTiles;
+    private final int maxMessageVertices;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxTiles           most tiles one viewport is split into; the tile zoom is lowered until it fits
+     * @param deliveredTiles     tiles remembered per session, the least recently sent are forgotten and sent again
+     * @param maxMessageVertices vertices per message above which a tile is split into parts
+     */
+    public ViewportStreamer(LanguagesZoneService languagesZoneService,
+                            ZoneDatasetVersions zoneDatasetVersions,
+                            SimpMessagingTemplate messagingTemplate,
+                            @Value("${map.ws.viewport.max-tiles:64}") int maxTiles,
+                            @Value("${map.ws.viewport.delivered-tiles:4096}") int deliveredTiles,
+                            @Value("${map.ws.viewport.max-message-vertices:20000}") int maxMessageVertices) {
+        this.languagesZoneService = languagesZoneService;
+        this.zoneDatasetVersions = zoneDatasetVersions;
+        this.messagingTemplate = messagingTemplate;
+        this.maxTiles = maxTiles;
+        this.deliveredTiles = deliveredTiles;
+        this.maxMessageVertices = maxMessageVertices;
+    }
+
+    /**
+     * Sends the tiles of the viewport the session has not received at the current version of the year.
+     * Blocks the calling inbound thread until every tile is sent or a newer viewport of the session arrives.
+     *
+     * @return number of tiles sent
+     */
+    public int stream(String sessionId, ViewportSubscription subscription) {
+        validate(subscription);
+        Integer year = subscription.getYear();
+        SessionState state = sessions.computeIfAbsent(sessionId, id -> new SessionState(deliveredTiles));
+        long generation = state.generation.incrementAndGet();
+        String version = zoneDatasetVersions.version(year);
+        synchronized (state) {
+            if (!year.equals(state.year)) {
+                state.delivered.clear();
+                state.year = year;
+            }
+        }
+
+        List<Tile> tiles = tilesOf(subscription);
+        int sent = 0;
+        for (Tile tile : tiles) {
+            if (state.generation.get() != generation) {
+                logger.debug("Viewport of session {} superseded after {} of {} tiles", sessionId, sent, tiles.size());
+                return sent;
+            }
+            synchronized (state) {
+                if (version.equals(state.delivered.get(tile))) {
+                    continue;
+                }
+            }
+            Envelope envelope = TileMath.tileEnvelope(tile.z(), tile.x(), tile.y());
+            List<LanguagesZone> zones = languagesZoneService.getLanguagesZone(
+                    envelope, LevelOfDetail.toleranceForZoom(tile.z()), year);
+            double[] bounds = {envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()};
+            List<List<LanguagesZone>> parts = split(zones);
+            for (int part = 0; part < parts.size(); part++) {
+                messagingTemplate.convertAndSendToUser(sessionId, QUEUE,
+                        new ViewportChunkMessage(year, tile.z(), tile.x(), tile.y(), bounds, version,
+                                part, parts.size(), parts.get(part)),
+                        sessionHeaders(sessionId, tile, part));
+            }
+            synchronized (state) {
+                // a newer viewport may have switched the year meanwhile, and versions of different years can be equal
+                if (state.generation.get() != generation || !year.equals(state.year)) {
+                    logger.debug("Viewport of session {} superseded after {} of {} tiles", sessionId, sent + 1,
+                            tiles.size());
+                    return sent + 1;
+                }
+                state.delivered.put(tile, version);
+            }
+            sent++;
+        }
+        logger.debug("Sent {} of {} viewport tiles to session {}", sent, tiles.size(), sessionId);
+        return sent;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        SessionState state = sessions.remove(event.getSessionId());
+        if (state != null) {
+            state.generation.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return tiles covering the viewport at the finest zoom that keeps them within {@code maxTiles},
+     * ordered by distance of their centre from the viewport centre
+     */
+    List<Tile> tilesOf(ViewportSubscription subscription) {
+        double[] leftTop = subscription.getLeftTopPointLatLon();
+        double[] rightBottom = subscription.getRightBottomPointLatLon();
+        double minLat = Math.min(leftTop[0], rightBottom[0]);
+        double maxLat = Math.max(leftTop[0], rightBottom[0]);
+        double minLon = Math.min(leftTop[1], rightBottom[1]);
+        double maxLon = Math.max(leftTop[1], rightBottom[1]);
+
+        int zoom = subscription.getZoom() != null ? subscription.getZoom() + 1 : MAX_TILE_ZOOM;
+        int z = Math.max(0, Math.min(MAX_TILE_ZOOM, zoom));
+        int minX, maxX, minY, maxY;
+        while (true) {
+            minX = TileMath.tileColumn(minLon, z);
+            maxX = TileMath.tileColumn(maxLon, z);
+            minY = TileMath.tileRow(maxLat, z);
+            maxY = TileMath.tileRow(minLat, z);
+            if (z == 0 || (long) (maxX - minX + 1) * (maxY - minY + 1) <= maxTiles) {
+                break;
+            }
+            z--;
+        }
+
+        double centreX = (minX + maxX + 1) / 2.0;
+        double centreY = (minY + maxY + 1) / 2.0;
+        List<Tile> tiles = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                tiles.add(new Tile(z, x, y));
+            }
+        }
+        tiles.sort(Comparator.comparingDouble(tile ->
+                Math.hypot(tile.x() + 0.5 - centreX, tile.y() + 0.5 - centreY)));
+        return tiles;
+    }
+
+    /**
+     * @return the zones in order, cut into parts of at most {@code maxMessageVertices} vertices;
+     * a single larger zone is a part of its own, and no zones still make one empty part
+     */
+    List<List<LanguagesZone>> split(List<LanguagesZone> zones) {
+        List<List<LanguagesZone>> parts = new ArrayList<>();
+        List<LanguagesZone> part = new ArrayList<>();
+        int vertices = 0;
+        for (LanguagesZone zone : zones) {
+            int zoneVertices = zone.getCoords() != null ? ZoneGeometries.vertexCount(zone.getCoords()) : 0;
+            if (!part.isEmpty() && vertices + zoneVertices > maxMessageVertices) {
+                parts.add(part);
+                part = new ArrayList<>();
+                vertices = 0;
+            }
+            part.add(zone);
+            vertices += zoneVertices;
+        }
+        parts.add(part);
+        return parts;
+    }
+
+    private static void validate(ViewportSubscription subscription) {
+        if (subscription.getYear() == null) {
+            throw new IllegalArgumentException("Viewport subscription needs a year");
+        }
+        if (!isPoint(subscription.getLeftTopPointLatLon()) || !isPoint(subscription.getRightBottomPointLatLon())) {
+            throw new IllegalArgumentException("Viewport corners must be [lat, lon] pairs");
+        }
+    }
+
+    private static boolean isPoint(double[] point) {
+        return point != null && point.length == 2 && Double.isFinite(point[0]) && Double.isFinite(point[1]);
+    }
+
+    /**
+     * A part still queued when the same part of the tile is sent again is skipped by {@link OutboundSessionLimiter}.
+     */
+    private static MessageHeaders sessionHeaders(String sessionId, Tile tile, int part) {
+        SimpMessageHeaderAccessor accessor = SessionRegistry.sessionHeaders(sessionId);
+        accessor.setNativeHeader(OutboundSessionLimiter.COALESCE_KEY_HEADER,
+                tile.z() + "/" + tile.x() + "/" + tile.y() + "/" + part);
+        return accessor.getMessageHeaders();
+    }
+
+    record Tile(int z, int x, int y) {
+    }
+
+    /**
+     * Tiles a session received, as an access-ordered map from tile to the dataset version it was sent at.
+     */
+    private static final class SessionState {
+        private final AtomicLong generation = new AtomicLong();
+        private final Map<Tile, String> delivered;
+        private Integer year;
+
+        private SessionState(int capacity) {
+            this.delivered = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Tile, String> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package languages.map.websocket;
+
+import languages.map.dto.BoundingBoxRequest;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Viewport a STOMP session wants zones for, sent to {@code /app/viewport} on every pan or zoom.
+ * The corners and zoom are those of {@link BoundingBoxRequest}; the tolerance is derived from the tile zoom.
+ */
+@Getter
+@Setter
+public class ViewportSubscription extends BoundingBoxRequest {
+    private Integer year;
+}
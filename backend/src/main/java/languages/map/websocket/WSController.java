@@ -11,15 +11,19 @@ import org.springframework.stereotype.Controller;
 
 
 import java.security.Principal;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 @Controller
 public class WSController { private final SimpMessagingTemplate messagingTemplate;
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(WSController.class);
+    private final ViewportStreamer viewportStreamer;
+    private final SessionRegistry sessionRegistry;
 
-    public WSController(SimpMessagingTemplate messagingTemplate) {
+    public WSController(SimpMessagingTemplate messagingTemplate, ViewportStreamer viewportStreamer,
+                        SessionRegistry sessionRegistry) {
         this.messagingTemplate = messagingTemplate;
+        this.viewportStreamer = viewportStreamer;
+        this.sessionRegistry = sessionRegistry;
     }
 
     @MessageMapping("/sendMessage")
@@ -34,15 +38,44 @@ public class WSController { private final SimpMessagingTemplate messagingTemplat
         }
     }
 
+    /**
+     * Sends the message to {@code /user/queue/private} of every open session authenticated as the recipient.
+     * Chat sender names are chosen by the client and are never used to route private messages.
+     */
     @MessageMapping("/sendPrivateMessage")
     public void sendPrivateMessage(@Payload WebSocketMessage message) {
         try {
-            messagingTemplate.convertAndSendToUser(
-                    message.getRecipient(),
-                    "/queue/private",
-                    message
-            );
+            Set<String> sessionIds = sessionRegistry.sessionsOfUser(message.getRecipient());
+            if (sessionIds.isEmpty()) {
+                logger.debug("No registered session of {}", message.getRecipient());
+                messagingTemplate.convertAndSendToUser(
+                        message.getRecipient(),
+                        "/queue/private",
+                        message
+                );
+                return;
+            }
+            for (String sessionId : sessionIds) {
+                messagingTemplate.convertAndSendToUser(sessionId, "/queue/private", message,
+                        SessionRegistry.sessionHeaders(sessionId).getMessageHeaders());
+            }
+        } catch (Exception e) {
+            logger.error("Error sending private message to {}", message.getRecipient(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the zones of the viewport tile by tile to {@code /user/queue/zones} of the sending session,
+     * skipping tiles the session already received at the current version of the year.
+     */
+    @MessageMapping("/viewport")
+    public void subscribeViewport(@Payload ViewportSubscription subscription,
+                                  SimpMessageHeaderAccessor headerAccessor) {
+        try {
+            viewportStreamer.stream(headerAccessor.getSessionId(), subscription);
         } catch (Exception e) {
+            logger.error("Error streaming viewport of session {}", headerAccessor.getSessionId(), e);
             throw e;
         }
     }
@@ -52,12 +85,16 @@ public class WSController { private final SimpMessagingTemplate messagingTemplat
         return "WebSocket connection established";
     }
 
+    /**
+     * Names the session after its principal; anonymous sessions stay unnamed and get no private messages.
+     */
     @MessageMapping("/register")
     public void register(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
-        String sessionId = headerAccessor.getSessionId();
-        if (sessionId != null) {
-            sessions.put(sessionId, new WebSocketSession(principal.getName(), sessionId));
+        if (principal == null) {
+            logger.debug("Ignoring register of anonymous session {}", headerAccessor.getSessionId());
+            return;
         }
+        sessionRegistry.assignUser(headerAccessor.getSessionId(), principal);
     }
 
     @Scheduled(fixedRate = 60000) // Every minute
@@ -67,15 +104,4 @@ public class WSController { private final SimpMessagingTemplate messagingTemplat
           } catch (Exception e) {
             }
     }
-
-    // Helper class for session management
-    private static class WebSocketSession {
-        private final String username;
-        private final String sessionId;
-
-        public WebSocketSession(String username, String sessionId) {
-            this.username = username;
-            this.sessionId = sessionId;
-        }
-    }
 }
\ No newline at end of file
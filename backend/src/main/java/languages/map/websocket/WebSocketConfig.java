@@ -1,12 +1,20 @@
 package languages.map.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import languages.map.serializers.ObjectIdSerializer;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.*;
@@ -18,6 +26,36 @@ import java.util.List;
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final Environment environment;
+    private final OutboundSessionLimiter outboundSessionLimiter;
+    private final SessionRegistry sessionRegistry;
+    private final int inboundMessageSizeLimit;
+    private final int sendBufferSizeLimit;
+    private final int sendTimeLimitMillis;
+    private final int outboundThreads;
+
+    /**
+     * @param inboundMessageSizeLimit largest STOMP frame accepted from a client, in bytes
+     * @param sendBufferSizeLimit     bytes the transport buffers per session while a send is in progress;
+     *                                a session past it or past the send time limit is closed
+     * @param outboundThreads         threads of the outbound channel, 0 for two per processor
+     */
+    public WebSocketConfig(Environment environment,
+                           OutboundSessionLimiter outboundSessionLimiter,
+                           SessionRegistry sessionRegistry,
+                           @Value("${map.ws.inbound.message-size-limit:65536}") int inboundMessageSizeLimit,
+                           @Value("${map.ws.outbound.send-buffer-size-limit:1048576}") int sendBufferSizeLimit,
+                           @Value("${map.ws.outbound.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+                           @Value("${map.ws.outbound.threads:0}") int outboundThreads) {
+        this.environment = environment;
+        this.outboundSessionLimiter = outboundSessionLimiter;
+        this.sessionRegistry = sessionRegistry;
+        this.inboundMessageSizeLimit = inboundMessageSizeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.outboundThreads = outboundThreads;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue", "/user");
@@ -37,19 +75,52 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://127.0.0.1:8000", "http://localhost:8000");
     }
 
+    /**
+     * With {@code spring.threads.virtual.enabled} on Java 21 inbound STOMP messages are handled on virtual threads,
+     * so handlers blocked on Mongo or clipping don't hold up other sessions.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+        }
+    }
+
+    /**
+     * Outbound messages are counted per session by {@link OutboundSessionLimiter}, which coalesces superseded ones
+     * and disconnects sessions that fall behind. Without virtual threads the pool is fixed instead of growing
+     * with the backlog.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outboundSessionLimiter);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+        } else {
+            int threads = outboundThreads > 0 ? outboundThreads : 2 * Runtime.getRuntime().availableProcessors();
+            registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads);
+        }
+    }
+
+    /**
+     * Large zone payloads are split by {@link ViewportStreamer} into messages well below the send buffer,
+     * so one slow client holds at most the send buffer plus its outbound lag limit.
+     */
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
-        registry.setMessageSizeLimit(100 * 1024 * 1024) // 100MB
-                .setSendBufferSizeLimit(100 * 1024 * 1024) // 100MB
-                .setSendTimeLimit(20 * 1000) // 20 seconds
-                .setTimeToFirstMessage(30000); // 30 seconds
+        registry.setMessageSizeLimit(inboundMessageSizeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setTimeToFirstMessage(30000) // 30 seconds
+                .addDecoratorFactory(outboundSessionLimiter::decorate)
+                .addDecoratorFactory(sessionRegistry::decorate);
     }
 
     @Bean
     public ServletServerContainerFactoryBean createWebSocketContainer() {
         ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
-        container.setMaxTextMessageBufferSize(100 * 1024 * 1024); // 100MB
-        container.setMaxBinaryMessageBufferSize(100 * 1024 * 1024); // 100MB
+        container.setMaxTextMessageBufferSize(inboundMessageSizeLimit);
+        container.setMaxBinaryMessageBufferSize(inboundMessageSizeLimit);
         container.setMaxSessionIdleTimeout(600000L); // 10 minutes
         container.setAsyncSendTimeout(5000L); // 5 seconds
         return container;
@@ -60,6 +131,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        // zones pushed by ViewportStreamer carry their id as a hex string, as in the REST responses
+        objectMapper.registerModule(new SimpleModule().addSerializer(ObjectId.class, new ObjectIdSerializer()));
         converter.setObjectMapper(objectMapper);
 
         DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
@@ -0,0 +1,108 @@
+package languages.map.websocket;
+
+import languages.map.events.ChunkChangedEvent;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.geometry.ZoneGeometries;
+import languages.map.services.ZoneDatasetVersions;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Forwards zone writes to STOMP subscribers of {@code /topic/zones/{year}}, so clients refetch only the areas
+ * that changed instead of polling. An update moving a zone to another year is sent to both years;
+ * changes without a year, such as clearing all zones, go to {@code /topic/zones}. Years no session of
+ * {@link SessionRegistry} subscribed are skipped.
+ * Chunk writes go to {@code /topic/chunks}.
+ * Changes are sent after {@link ZoneDatasetVersions} moved the version of the year, so a client refetching right
+ * away never gets the old ETag or viewport tiles confirmed.
+ */
+@Component
+public class ZoneChangeBroadcaster {
+    public static final String TOPIC = "/topic/zones";
+    public static final String CHUNKS_TOPIC = "/topic/chunks";
+    private static final Logger logger = LoggerFactory.getLogger(ZoneChangeBroadcaster.class);
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SessionRegistry sessionRegistry;
+
+    public ZoneChangeBroadcaster(SimpMessagingTemplate messagingTemplate, SessionRegistry sessionRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    @EventListener
+    @Order(ZoneDatasetVersions.NOTIFY_ORDER)
+    public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+        double[] envelope = envelopeOf(event);
+        String id = event.id() != null ? event.id().toHexString() : null;
+        Long version = event.zone() != null ? event.zone().getVersion() : null;
+        if (event.year() == null && event.previousYear() == null) {
+            send(TOPIC, new ZoneChangeMessage(event.operation(), id, null, version, envelope));
+            return;
+        }
+        if (event.year() != null && sessionRegistry.hasSubscribers(event.year())) {
+            send(TOPIC + "/" + event.year(),
+                    new ZoneChangeMessage(event.operation(), id, event.year(), version, envelope));
+        }
+        if (event.previousYear() != null && !Objects.equals(event.previousYear(), event.year())
+                && sessionRegistry.hasSubscribers(event.previousYear())) {
+            send(TOPIC + "/" + event.previousYear(),
+                    new ZoneChangeMessage(event.operation(), id, event.previousYear(), version, envelope));
+        }
+    }
+
+    @EventListener
+    public void onChunkChanged(ChunkChangedEvent event) {
+        LanguagesZoneChangedEvent.Operation operation = event.deleted()
+                ? LanguagesZoneChangedEvent.Operation.DELETED
+                : LanguagesZoneChangedEvent.Operation.SAVED;
+        send(CHUNKS_TOPIC, new ZoneChangeMessage(operation, event.id().toHexString(), null, null, null));
+    }
+
+    /**
+     * Notifications are best effort: a failed send must not fail the write that caused it.
+     */
+    private void send(String destination, ZoneChangeMessage message) {
+        try {
+            messagingTemplate.convertAndSend(destination, message);
+        } catch (Exception e) {
+            logger.warn("Failed to send zone change to {}", destination, e);
+        }
+    }
+
+    /**
+     * @return union of the extent before and after the write, null when either side is unknown
+     */
+    private static double[] envelopeOf(LanguagesZoneChangedEvent event) {
+        Envelope envelope = new Envelope();
+        switch (event.operation()) {
+            case SAVED -> envelope.expandToInclude(ZoneGeometries.envelopeOf(event.zone()));
+            case UPDATED -> {
+                if (event.previousEnvelope() == null) {
+                    return null;
+                }
+                envelope.expandToInclude(ZoneGeometries.envelopeOf(event.zone()));
+                envelope.expandToInclude(event.previousEnvelope());
+            }
+            case DELETED -> {
+                if (event.previousEnvelope() == null) {
+                    return null;
+                }
+                envelope.expandToInclude(event.previousEnvelope());
+            }
+            default -> {
+                return null;
+            }
+        }
+        if (envelope.isNull()) {
+            return null;
+        }
+        return new double[]{envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY()};
+    }
+}
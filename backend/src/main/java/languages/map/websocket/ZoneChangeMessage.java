@@ -0,0 +1,20 @@
+package languages.map.websocket;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+
+/**
+ * Compact notice of a zone write sent to STOMP subscribers; the zone body itself is fetched by clients that need it.
+ *
+ * @param op       SAVED, UPDATED, DELETED, RELOADED or CLEARED
+ * @param id       hex id of the zone, {@code null} when many zones changed
+ * @param year     year the message was sent for
+ * @param version  version of the zone after the write, {@code null} for deletes
+ * @param envelope {@code [minLat, minLon, maxLat, maxLon]} covering the zone before and after the write,
+ *                 {@code null} when unknown, meaning any area of the year may have changed
+ */
+public record ZoneChangeMessage(LanguagesZoneChangedEvent.Operation op,
+                                String id,
+                                Integer year,
+                                Long version,
+                                double[] envelope) {
+}
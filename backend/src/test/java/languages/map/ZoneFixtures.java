@@ -0,0 +1,55 @@
+package languages.map;
+
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zones for tests, each with a fresh id and at version 1. Coordinates are latitude on x as stored.
+ */
+public final class ZoneFixtures {
+
+    private ZoneFixtures() {
+    }
+
+    /**
+     * @return zone of the year with a single polygon of the closed ring
+     */
+    public static LanguagesZone zone(int year, List<Point> ring) {
+        LanguagesZone zone = new LanguagesZone();
+        zone.setId(new ObjectId());
+        zone.setYear(year);
+        zone.setVersion(1L);
+        zone.setCoords(List.of(new GeoJsonPolygon(ring)));
+        return zone;
+    }
+
+    /**
+     * @return zone of the year covering the square with its lower corner at (x, y)
+     */
+    public static LanguagesZone square(int year, double x, double y, double size) {
+        return zone(year, List.of(
+                new Point(x, y),
+                new Point(x, y + size),
+                new Point(x + size, y + size),
+                new Point(x + size, y),
+                new Point(x, y)));
+    }
+
+    /**
+     * @return zone of the year approximating the circle by the given number of vertices
+     */
+    public static LanguagesZone circle(int year, double x, double y, double radius, int vertices) {
+        List<Point> ring = new ArrayList<>(vertices + 1);
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            ring.add(new Point(x + radius * Math.cos(angle), y + radius * Math.sin(angle)));
+        }
+        ring.add(ring.get(0));
+        return zone(year, ring);
+    }
+}
@@ -0,0 +1,67 @@
+package languages.map.configurations;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClipExecutorConfigTest {
+
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new ClipExecutorConfig().zoneClipExecutor(2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void zoneClipExecutor_ShouldBeBoundedInThreadsAndQueue() {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+
+        assertEquals(2, pool.getCorePoolSize());
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertEquals(1, pool.getQueue().remainingCapacity());
+    }
+
+    @Test
+    void zoneClipExecutor_ShouldRunOnCallerWhenFull() throws Exception {
+        executor.submit(this::block);
+        executor.submit(this::block);
+        executor.submit(this::block);
+
+        Future<String> overflow = executor.submit(() -> Thread.currentThread().getName());
+
+        assertTrue(overflow.isDone());
+        assertEquals(Thread.currentThread().getName(), overflow.get());
+    }
+
+    @Test
+    void zoneClipExecutor_ShouldRejectAfterShutdown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "late"));
+    }
+
+    private Object block() throws InterruptedException {
+        release.await();
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package languages.map.configurations;
+
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.inmemory.InMemoryLanguagesZoneRepository;
+import languages.map.services.LanguagesZoneImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class InMemorySeederTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void run_ShouldLoadEveryFileIntoEveryYear() throws Exception {
+        Path file = directory.resolve("zones.geo.json");
+        Files.writeString(file, """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "properties": {"name": "Square"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[10, 50], [11, 50], [11, 51], [10, 50]]]}}
+                ]}
+                """);
+        InMemoryLanguagesZoneRepository repository = new InMemoryLanguagesZoneRepository();
+        LanguagesZoneImportService importService =
+                new LanguagesZoneImportService(repository, mock(ApplicationEventPublisher.class), 500);
+
+        new InMemorySeeder(importService, new String[]{file.toString(), " "}, new int[]{2023, 2024})
+                .run(new DefaultApplicationArguments());
+
+        List<LanguagesZone> zones = repository.findAll();
+        assertEquals(2, zones.size());
+        assertEquals(List.of(2023, 2024), zones.stream().map(LanguagesZone::getYear).toList());
+        assertNotNull(zones.get(0).getMinX());
+        assertEquals(1L, zones.get(1).getVersion());
+    }
+}
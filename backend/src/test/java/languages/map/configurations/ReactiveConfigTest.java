@@ -0,0 +1,25 @@
+package languages.map.configurations;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.scheduler.Scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(ReactiveConfig.class);
+
+    @Test
+    void reactiveBeans_ShouldBeAbsentUnlessEnabled() {
+        runner.run(context -> assertThat(context)
+                .doesNotHaveBean(MongoClient.class)
+                .doesNotHaveBean(ReactiveMongoTemplate.class)
+                .doesNotHaveBean(Scheduler.class));
+        runner.withPropertyValues("map.reactive.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(MongoClient.class));
+    }
+}
@@ -0,0 +1,83 @@
+package languages.map.configurations;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static languages.map.ZoneFixtures.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class ZoneEnvelopeMigrationTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ZoneEnvelopeMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(client, "map-" + new ObjectId());
+        migration = new ZoneEnvelopeMigration(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void migrate_ShouldFillEnvelopesOfLegacyZones() {
+        LanguagesZone legacy = mongoTemplate.insert(legacyZone(10, 20));
+
+        migration.migrate();
+
+        LanguagesZone migrated = mongoTemplate.findById(legacy.getId(), LanguagesZone.class);
+        assertNotNull(migrated);
+        assertEquals(10.0, migrated.getMinX());
+        assertEquals(20.0, migrated.getMinY());
+        assertEquals(12.0, migrated.getMaxX());
+        assertEquals(22.0, migrated.getMaxY());
+        assertNotNull(migrated.getGeoEnvelope());
+        assertTrue(mongoTemplate.exists(new Query(Criteria.where("_id").is(ZoneEnvelopeMigration.MIGRATION_ID)),
+                ZoneEnvelopeMigration.MIGRATIONS_COLLECTION));
+    }
+
+    @Test
+    void migrate_ShouldSkipScanOnceCompleted() {
+        migration.migrate();
+        LanguagesZone later = mongoTemplate.insert(legacyZone(0, 0));
+
+        migration.migrate();
+
+        assertNull(mongoTemplate.findById(later.getId(), LanguagesZone.class).getMinX());
+    }
+
+    /**
+     * A zone as stored before the envelope fields existed.
+     */
+    private static LanguagesZone legacyZone(double x, double y) {
+        LanguagesZone zone = square(2024, x, y, 2);
+        zone.setId(null);
+        zone.setVersion(null);
+        zone.setName("legacy");
+        return zone;
+    }
+}
@@ -3,19 +3,31 @@ package languages.map.controller;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import languages.map.configurations.SecurityConfig;
 import languages.map.controllers.ChunkController;
 import languages.map.controllers.LanguagesZoneController;
+import languages.map.dto.BatchBoundingBoxRequest;
 import languages.map.dto.BoundingBoxRequest;
+import languages.map.dto.ZonePatchRequest;
+import languages.map.events.LanguagesZoneChangedEvent;
 import languages.map.models.Chunk;
 import languages.map.models.LanguagesZone;
 import languages.map.serializers.ObjectIdSerializer;
+import languages.map.serializers.ZoneBinaryWriter;
 import languages.map.services.ChunkService;
+import languages.map.services.LanguagesZoneImportService;
 import languages.map.services.LanguagesZoneService;
 import languages.map.services.UserService;
+import languages.map.services.VectorTileService;
+import languages.map.services.YearPayloadCache;
+import languages.map.services.ZoneDatasetVersions;
+import languages.map.services.ZoneMetrics;
+import languages.map.services.ZoneWriter;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -26,11 +38,23 @@ import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.http.*;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -59,6 +83,26 @@ public class ControllersTest {
             return mock(LanguagesZoneService.class);
         }
 
+        @Bean
+        public LanguagesZoneImportService languagesZoneImportService() {
+            return mock(LanguagesZoneImportService.class);
+        }
+
+        @Bean
+        public VectorTileService vectorTileService() {
+            return mock(VectorTileService.class);
+        }
+
+        @Bean
+        public ZoneDatasetVersions zoneDatasetVersions() {
+            return new ZoneDatasetVersions();
+        }
+
+        @Bean
+        public YearPayloadCache yearPayloadCache(ZoneDatasetVersions zoneDatasetVersions) {
+            return new YearPayloadCache(zoneDatasetVersions, new ZoneMetrics(new SimpleMeterRegistry()), 16);
+        }
+
         @Bean
         public ObjectMapper objectMapper() {
             ObjectMapper mapper = new ObjectMapper();
@@ -79,6 +123,12 @@ public class ControllersTest {
     @Autowired
     private LanguagesZoneService languagesZoneService;
 
+    @Autowired
+    private VectorTileService vectorTileService;
+
+    @Autowired
+    private YearPayloadCache yearPayloadCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,6 +138,7 @@ public class ControllersTest {
 
     @BeforeEach
     void setUp() {
+        yearPayloadCache.onLanguagesZoneChanged(LanguagesZoneChangedEvent.cleared());
 
         testChunk = new Chunk();
         testChunk.setId(new ObjectId());
@@ -172,6 +223,26 @@ public class ControllersTest {
                 .andExpect(jsonPath("$[0].id").value(testZone.getId().toString()));
     }
 
+    @Test
+    void getLanguagesZonesByYear_ShouldServeCachedGzipPayload() throws Exception {
+        reset(languagesZoneService);
+        when(languagesZoneService.getLanguagesZoneByYear(2024)).thenReturn(List.of(testZone));
+
+        mockMvc.perform(get("/api/all/2024"))
+                .andExpect(status().isOk());
+        byte[] body = mockMvc.perform(get("/api/all/2024").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains(testZone.getId().toString()));
+        }
+        verify(languagesZoneService, times(1)).getLanguagesZoneByYear(2024);
+    }
+
     @Test
     void getLanguagesZonesRelatedToChunk_ShouldReturnZonesList() throws Exception {
         when(languagesZoneService.getLanguagesZone(any(BoundingBoxRequest.class), any(Integer.class)))
@@ -185,6 +256,62 @@ public class ControllersTest {
                 .andExpect(jsonPath("$[0].id").value(testZone.getId().toString()));
     }
 
+    @Test
+    void getLanguagesZonesRelatedToChunks_ShouldReturnZonesByChunk() throws Exception {
+        when(languagesZoneService.getLanguagesZoneBatch(any(BatchBoundingBoxRequest.class), any(Integer.class)))
+                .thenReturn(Map.of("0:0", List.of(testZone)));
+        BatchBoundingBoxRequest batchRequest = new BatchBoundingBoxRequest();
+        batchRequest.setChunks(Map.of("0:0", testBoundingBox));
+
+        mockMvc.perform(post("/api/areas/2024/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$['0:0'][0].id").value(testZone.getId().toString()));
+    }
+
+    @Test
+    void getLanguagesZonesRelatedToChunk_ShouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        reset(languagesZoneService);
+        when(languagesZoneService.getLanguagesZone(any(BoundingBoxRequest.class), any(Integer.class)))
+                .thenReturn(List.of(testZone));
+        String body = objectMapper.writeValueAsString(testBoundingBox);
+
+        String etag = mockMvc.perform(post("/api/areas/2024")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/areas/2024")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .content(body))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(languagesZoneService, times(1)).getLanguagesZone(any(BoundingBoxRequest.class), any(Integer.class));
+    }
+
+    @Test
+    void getLanguagesZonesRelatedToChunk_ShouldWriteBinaryWhenAccepted() throws Exception {
+        when(languagesZoneService.getLanguagesZone(any(BoundingBoxRequest.class), any(Integer.class)))
+                .thenReturn(List.of(testZone));
+
+        byte[] body = mockMvc.perform(post("/api/areas/2024?precision=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ZoneBinaryWriter.MEDIA_TYPE)
+                        .content(objectMapper.writeValueAsString(testBoundingBox)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ZoneBinaryWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals('L', body[0]);
+        assertEquals(5, body[4]);
+    }
+
     @Test
     void getLanguagesZoneById_ShouldReturnZone() throws Exception {
         when(languagesZoneService.getLanguageZoneById(any(ObjectId.class))).thenReturn(testZone);
@@ -207,6 +334,22 @@ public class ControllersTest {
                 .andExpect(jsonPath("$.id").value(testZone.getId().toString()));
     }
 
+    @Test
+    void createLanguageZone_ShouldIgnoreVersionOfBody() throws Exception {
+        when(languagesZoneService.saveLanguageZone(any(LanguagesZone.class))).thenReturn(testZone);
+        testZone.setVersion(99L);
+
+        mockMvc.perform(post("/api/area")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testZone)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(99));
+
+        ArgumentCaptor<LanguagesZone> saved = ArgumentCaptor.forClass(LanguagesZone.class);
+        verify(languagesZoneService).saveLanguageZone(saved.capture());
+        assertNull(saved.getValue().getVersion());
+    }
+
     @Test
     void updateLanguageZone_ShouldReturnUpdatedZone() throws Exception {
         when(languagesZoneService.updateLanguageZone(any(ObjectId.class), any(LanguagesZone.class)))
@@ -248,6 +391,74 @@ public class ControllersTest {
         verify(languagesZoneService, times(1)).deleteLanguageZone(any(LanguagesZone.class));
     }
 
+    @Test
+    void getTile_ShouldReturnVectorTile() throws Exception {
+        byte[] tile = new byte[]{0x1a, 0x00};
+        when(vectorTileService.getTile(2024, 3, 4, 2)).thenReturn(tile);
+
+        mockMvc.perform(get("/api/tiles/2024/3/4/2.mvt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.mapbox-vector-tile"))
+                .andExpect(content().bytes(tile));
+    }
+
+    @Test
+    void getTile_ShouldRejectTileOutsideZoomLevel() throws Exception {
+        mockMvc.perform(get("/api/tiles/2024/1/2/0.mvt"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamLanguagesZonesRelatedToChunk_ShouldWriteNdjson() throws Exception {
+        doAnswer(invocation -> {
+            ZoneWriter writer = invocation.getArgument(2);
+            writer.write(testZone);
+            return null;
+        }).when(languagesZoneService).streamLanguagesZone(any(BoundingBoxRequest.class), any(Integer.class), any(ZoneWriter.class));
+
+        MvcResult result = mockMvc.perform(post("/api/areas/2024?stream=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept("application/x-ndjson")
+                        .content(objectMapper.writeValueAsString(testBoundingBox)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString(testZone.getId().toString())));
+    }
 
+    @Test
+    void patchLanguageZones_ShouldPassIdsAndMetadata() throws Exception {
+        when(languagesZoneService.patchLanguageZones(anyCollection(), any(ZonePatchRequest.class))).thenReturn(1L);
 
+        mockMvc.perform(patch("/api/areas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [\"" + testZone.getId() + "\"], \"intensity\": 0.9}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modified").value(1));
+
+        verify(languagesZoneService).patchLanguageZones(eq(List.of(testZone.getId())), any(ZonePatchRequest.class));
+    }
+
+    @Test
+    void deleteLanguageZonesByYear_ShouldReturnDeletedCount() throws Exception {
+        when(languagesZoneService.deleteLanguageZonesByYear(2024)).thenReturn(3L);
+
+        mockMvc.perform(delete("/api/areas/2024"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(3));
+    }
+
+    @Test
+    void prometheus_ShouldNeedScrapeUser() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden());
+        // the web slice has no actuator, so the scrape user gets past security to a missing endpoint
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "metrics")))
+                .andExpect(status().isNotFound());
+    }
 }
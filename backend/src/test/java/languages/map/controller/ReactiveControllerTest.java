@@ -0,0 +1,72 @@
+package languages.map.controller;
+
+import languages.map.controllers.ReactiveController;
+import languages.map.models.Chunk;
+import languages.map.repositories.ReactiveChunkRepository;
+import languages.map.services.ReactiveChunkService;
+import languages.map.services.ReactiveLanguagesZoneService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReactiveControllerTest {
+
+    private ReactiveChunkRepository chunkRepository;
+    private ReactiveController controller;
+
+    @BeforeEach
+    void setUp() {
+        chunkRepository = mock(ReactiveChunkRepository.class);
+        controller = new ReactiveController(mock(ReactiveLanguagesZoneService.class),
+                new ReactiveChunkService(chunkRepository));
+    }
+
+    @Test
+    void getChunks_ShouldStreamChunksInRepositoryOrder() {
+        Chunk first = chunk();
+        Chunk second = chunk();
+        when(chunkRepository.findAll()).thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(controller.getChunks())
+                .expectNext(first, second)
+                .verifyComplete();
+    }
+
+    @Test
+    void getChunk_ShouldReturnChunk() {
+        Chunk chunk = chunk();
+        when(chunkRepository.findById(chunk.getId())).thenReturn(Mono.just(chunk));
+
+        StepVerifier.create(controller.getChunk(chunk.getId()))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(chunk, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getChunk_ShouldReturnNotFoundForMissingChunk() {
+        ObjectId id = new ObjectId();
+        when(chunkRepository.findById(id)).thenReturn(Mono.empty());
+
+        StepVerifier.create(controller.getChunk(id))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    private static Chunk chunk() {
+        Chunk chunk = new Chunk();
+        chunk.setId(new ObjectId());
+        return chunk;
+    }
+}
@@ -0,0 +1,95 @@
+package languages.map.geometry;
+
+import languages.map.models.LanguagesZone;
+import languages.map.services.ZoneGeometryCache;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.data.geo.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static languages.map.ZoneFixtures.zone;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelOfDetailTest {
+
+    private final ZoneGeometryCache cache = new ZoneGeometryCache(new double[]{0.05, 0.001, 0.01}, 100);
+
+    @Test
+    void tolerance_ShouldPreferExplicitToleranceThenZoom() {
+        assertEquals(0.2, LevelOfDetail.tolerance(3, 0.2));
+        assertEquals(LevelOfDetail.toleranceForZoom(3), LevelOfDetail.tolerance(3, null));
+        assertEquals(0.0, LevelOfDetail.tolerance(null, null));
+        assertEquals(LevelOfDetail.toleranceForZoom(4) / 2, LevelOfDetail.toleranceForZoom(5), 1e-12);
+    }
+
+    @Test
+    void get_ShouldPickCoarsestLevelWithinTolerance() {
+        LanguagesZone zone = zone(2024, star(5, 5, 2, 0.8, 2_000));
+        List<Geometry> full = cache.get(zone);
+        List<Geometry> fine = cache.get(zone, 0.001);
+        List<Geometry> medium = cache.get(zone, 0.01);
+        List<Geometry> coarse = cache.get(zone, 0.05);
+
+        assertSame(full, cache.get(zone, 0));
+        assertSame(full, cache.get(zone, 0.0005));
+        assertSame(fine, cache.get(zone, 0.005));
+        assertSame(medium, cache.get(zone, 0.049));
+        assertSame(coarse, cache.get(zone, 1));
+        // zoom 10 is about 0.0014 degrees per pixel, zoom 4 about 0.088
+        assertSame(fine, cache.get(zone, LevelOfDetail.tolerance(10, null)));
+        assertSame(coarse, cache.get(zone, LevelOfDetail.tolerance(4, null)));
+    }
+
+    @Test
+    void get_ShouldSimplifyIntoValidGeometriesWithFewerVertices() {
+        LanguagesZone zone = zone(2024, star(5, 5, 2, 0.8, 2_000));
+        double area = area(cache.get(zone));
+        int previousVertices = Integer.MAX_VALUE;
+
+        for (double tolerance : new double[]{0, 0.001, 0.01, 0.05}) {
+            List<Geometry> level = cache.get(zone, tolerance);
+            int vertices = 0;
+            for (Geometry geometry : level) {
+                assertTrue(geometry.isValid(), "invalid at tolerance " + tolerance);
+                assertFalse(geometry.isEmpty());
+                vertices += geometry.getNumPoints();
+            }
+            assertTrue(vertices <= previousVertices, "more vertices at tolerance " + tolerance);
+            assertEquals(area, area(level), area * 0.05, "area drifted at tolerance " + tolerance);
+            previousVertices = vertices;
+        }
+        assertTrue(cache.get(zone, 0.05).get(0).getNumPoints() < cache.get(zone).get(0).getNumPoints() / 10);
+    }
+
+    @Test
+    void get_ShouldRepairSelfIntersectingRingsOnEveryLevel() {
+        LanguagesZone zone = zone(2024, List.of(
+                new Point(0, 0), new Point(1, 1), new Point(1, 0), new Point(0, 1), new Point(0, 0)));
+
+        for (double tolerance : new double[]{0, 0.001, 0.01, 0.05}) {
+            for (Geometry geometry : cache.get(zone, tolerance)) {
+                assertTrue(geometry.isValid(), "invalid at tolerance " + tolerance);
+            }
+        }
+    }
+
+    private static double area(List<Geometry> geometries) {
+        return geometries.stream().mapToDouble(Geometry::getArea).sum();
+    }
+
+    /**
+     * A concave ring alternating between two radii, with many vertices closer together than the coarse tolerances.
+     */
+    private static List<Point> star(double x, double y, double outer, double inner, int vertices) {
+        List<Point> ring = new ArrayList<>(vertices + 1);
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = (i / 50) % 2 == 0 ? outer : inner;
+            ring.add(new Point(x + radius * Math.cos(angle), y + radius * Math.sin(angle)));
+        }
+        ring.add(ring.get(0));
+        return ring;
+    }
+}
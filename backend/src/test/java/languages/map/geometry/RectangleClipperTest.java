@@ -0,0 +1,49 @@
+package languages.map.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RectangleClipperTest {
+
+    private final RectangleClipper clipper = new RectangleClipper(new Envelope(0, 10, 0, 10));
+
+    @Test
+    void clip_ShouldReturnSamePolygon_WhenFullyInside() {
+        Polygon polygon = square(2, 2, 3);
+
+        List<Polygon> clipped = clipper.clip(polygon);
+
+        assertEquals(1, clipped.size());
+        assertSame(polygon, clipped.get(0));
+    }
+
+    @Test
+    void clip_ShouldReturnNothing_WhenDisjoint() {
+        assertTrue(clipper.clip(square(20, 20, 3)).isEmpty());
+    }
+
+    @Test
+    void clip_ShouldCutPolygon_WhenCrossingBorder() {
+        List<Polygon> clipped = clipper.clip(square(8, 8, 4));
+
+        assertEquals(1, clipped.size());
+        assertEquals(4.0, clipped.get(0).getArea(), 1e-9);
+        assertEquals(new Envelope(8, 10, 8, 10), clipped.get(0).getEnvelopeInternal());
+    }
+
+    private static Polygon square(double x, double y, double size) {
+        return ZoneGeometries.FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(x, y),
+                new Coordinate(x + size, y),
+                new Coordinate(x + size, y + size),
+                new Coordinate(x, y + size),
+                new Coordinate(x, y)
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package languages.map.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonMultiPolygon;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZoneGeometriesTest {
+
+    @Test
+    void toLonLatShape_ShouldPutLongitudeFirst() {
+        GeoJsonMultiPolygon shape = ZoneGeometries.toLonLatShape(new Envelope(40, 50, 150, 160));
+
+        assertEquals(1, shape.getCoordinates().size());
+        Envelope lonLat = ZoneGeometries.envelopeOf(shape.getCoordinates().get(0));
+        assertEquals(new Envelope(150, 160, 40, 50), lonLat);
+    }
+
+    @Test
+    void toLonLatShape_ShouldSplitWideEnvelopesAndStayShortOfPoles() {
+        GeoJsonMultiPolygon shape = ZoneGeometries.toLonLatShape(new Envelope(-90, 90, -180, 180));
+
+        assertEquals(4, shape.getCoordinates().size());
+        for (GeoJsonPolygon polygon : shape.getCoordinates()) {
+            Envelope lonLat = ZoneGeometries.envelopeOf(polygon);
+            assertTrue(lonLat.getWidth() <= 90);
+            assertTrue(lonLat.getMaxY() < 90 && lonLat.getMinY() > -90);
+            assertEquals(polygon.getPoints().get(0), polygon.getPoints().get(polygon.getPoints().size() - 1));
+            assertTrue(ZoneGeometries.toPolygon(polygon).isValid());
+        }
+    }
+
+    @Test
+    void toLonLatShape_ShouldWidenPointEnvelope() {
+        GeoJsonMultiPolygon shape = ZoneGeometries.toLonLatShape(new Envelope(new Coordinate(10, 20)));
+
+        GeoJsonPolygon polygon = shape.getCoordinates().get(0);
+        assertTrue(ZoneGeometries.toPolygon(polygon).getArea() > 0);
+        assertTrue(polygon.getPoints().contains(new Point(20, 10)));
+    }
+}
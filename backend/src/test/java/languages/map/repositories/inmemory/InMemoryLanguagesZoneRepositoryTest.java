@@ -0,0 +1,128 @@
+package languages.map.repositories.inmemory;
+
+import languages.map.dto.ZonePatchRequest;
+import languages.map.models.LanguagesZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryLanguagesZoneRepositoryTest {
+
+    private InMemoryLanguagesZoneRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryLanguagesZoneRepository();
+    }
+
+    @Test
+    void save_ShouldAssignIdAndStoreDetachedCopy() {
+        LanguagesZone zone = zone("Polish", 2024, 0.5);
+
+        repository.save(zone);
+        zone.setName("Changed");
+        LanguagesZone found = repository.findById(zone.getId()).orElseThrow();
+        found.setName("Changed again");
+
+        assertNotNull(zone.getId());
+        assertEquals("Polish", repository.findById(zone.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void insert_ShouldRejectExistingId() {
+        LanguagesZone zone = repository.save(zone("Polish", 2024, 0.5));
+
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(zone));
+    }
+
+    @Test
+    void delete_ShouldRemoveOnlyMatchingZones() {
+        LanguagesZone kept = repository.save(zone("Polish", 2024, 0.5));
+        LanguagesZone deleted = repository.save(zone("Czech", 2023, 0.7));
+        repository.save(zone("Slovak", 2023, 0.2));
+
+        repository.delete(deleted);
+        long deletedByYear = repository.deleteByYear(2023);
+
+        assertEquals(1, deletedByYear);
+        assertEquals(List.of(kept.getId()), repository.findAll().stream().map(LanguagesZone::getId).toList());
+    }
+
+    @Test
+    void findAll_ShouldSortAndPage() {
+        repository.save(zone("Polish", 2024, 0.5));
+        repository.save(zone("czech", 2024, null));
+        repository.save(zone("Slovak", 2024, 0.2));
+
+        List<LanguagesZone> byIntensity = repository.findAll(Sort.by(Sort.Direction.DESC, "intensity"));
+        Page<LanguagesZone> byName =
+                repository.findAll(PageRequest.of(0, 2, Sort.by(Sort.Order.asc("name").ignoreCase())));
+
+        assertEquals(List.of("Polish", "Slovak", "czech"), byIntensity.stream().map(LanguagesZone::getName).toList());
+        assertEquals(List.of("czech", "Polish"), byName.getContent().stream().map(LanguagesZone::getName).toList());
+        assertEquals(3, byName.getTotalElements());
+    }
+
+    @Test
+    void findAll_ShouldMatchExample() {
+        repository.save(zone("Polish", 2024, 0.5));
+        repository.save(zone("Old Polish", 2023, 0.5));
+        repository.save(zone("Czech", 2024, 0.5));
+
+        LanguagesZone probe = new LanguagesZone();
+        probe.setColor(null);
+        probe.setName("polish");
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.ENDING)
+                .withIgnoreCase();
+
+        List<LanguagesZone> polish = repository.findAll(Example.of(probe, matcher), Sort.by("year"));
+        probe.setYear(2024);
+        long polish2024 = repository.count(Example.of(probe, matcher));
+        String czech = repository.findBy(Example.of(zone("Czech", null, null)),
+                query -> query.oneValue().getName());
+
+        assertEquals(List.of("Old Polish", "Polish"), polish.stream().map(LanguagesZone::getName).toList());
+        assertEquals(1, polish2024);
+        assertEquals("Czech", czech);
+    }
+
+    @Test
+    void updateMetadata_ShouldSetMetadataAndKeepVersion() {
+        LanguagesZone zone = zone("Polish", 2024, 0.5);
+        zone.setVersion(3L);
+        repository.save(zone);
+        LanguagesZone other = repository.save(zone("Czech", 2024, 0.7));
+        ZonePatchRequest patch = new ZonePatchRequest();
+        patch.setName("Old Polish");
+        patch.setYear(2023);
+
+        long modified = repository.updateMetadata(List.of(zone.getId()), patch);
+
+        LanguagesZone patched = repository.findById(zone.getId()).orElseThrow();
+        assertEquals(1, modified);
+        assertEquals("Old Polish", patched.getName());
+        assertEquals(2023, patched.getYear());
+        assertEquals(0.5, patched.getIntensity());
+        assertEquals(3L, patched.getVersion());
+        assertEquals("Czech", repository.findById(other.getId()).orElseThrow().getName());
+    }
+
+    private static LanguagesZone zone(String name, Integer year, Double intensity) {
+        LanguagesZone zone = new LanguagesZone();
+        zone.setName(name);
+        zone.setYear(year);
+        zone.setIntensity(intensity);
+        zone.setColor(null);
+        return zone;
+    }
+}
@@ -0,0 +1,71 @@
+package languages.map.serializers;
+
+import languages.map.models.LanguagesZone;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Point;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoJsonFeatureReaderTest {
+
+    @Test
+    void read_ShouldSwapPositionsToLatLonAndSplitMultiPolygons() throws Exception {
+        String json = """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "properties": {"name": "Square"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[10, 50], [11, 50], [11, 51], [10, 50]]]}},
+                  {"type": "Feature", "properties": {"name": "Islands"},
+                   "geometry": {"type": "MultiPolygon", "coordinates": [
+                     [[[0, 0], [1, 0], [1, 1], [0, 0]]],
+                     [[[5, 5], [6, 5], [6, 6], [5, 5]]]]}},
+                  {"type": "Feature", "properties": {"name": "Capital"},
+                   "geometry": {"type": "Point", "coordinates": [10, 50]}}
+                ]}
+                """;
+
+        List<LanguagesZone> zones = GeoJsonFeatureReader.read(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 2024);
+
+        assertEquals(2, zones.size());
+        assertEquals("Square", zones.get(0).getName());
+        assertEquals(2024, zones.get(0).getYear());
+        assertEquals(new Point(50, 11), zones.get(0).getCoords().get(0).getPoints().get(1));
+        assertEquals(2, zones.get(1).getCoords().size());
+    }
+
+    @Test
+    void stream_ShouldReportRejectedFeaturesAndSkipOtherMembers() throws Exception {
+        String json = """
+                {"type": "FeatureCollection", "bbox": [0, 0, 20, 60], "features": [
+                  {"type": "Feature", "properties": {"name": "Capital"},
+                   "geometry": {"type": "Point", "coordinates": [10, 50]}},
+                  {"type": "Feature", "properties": {"name": "Broken"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[10, 50], [11, "x"], [11, 51], [10, 50]]]}},
+                  {"type": "Feature", "properties": {"name": "Square"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[10, 50], [11, 50], [11, 51], [10, 50]]]}}
+                ], "crs": {"type": "name"}}
+                """;
+        List<String> errors = new ArrayList<>();
+        List<LanguagesZone> zones = new ArrayList<>();
+
+        GeoJsonFeatureReader.stream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 2024,
+                (index, zone, error) -> {
+                    if (zone != null) {
+                        zones.add(zone);
+                    } else {
+                        errors.add(index + ": " + error);
+                    }
+                });
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).startsWith("0: Unsupported geometry type"));
+        assertTrue(errors.get(1).startsWith("1: Invalid position"));
+        assertEquals(1, zones.size());
+        assertEquals("Square", zones.get(0).getName());
+    }
+}
@@ -0,0 +1,58 @@
+package languages.map.serializers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorTileEncoderTest {
+
+    @Test
+    void encode_ShouldBeEmpty_WithoutFeatures() {
+        assertEquals(0, new VectorTileEncoder("zones", 4096).encode().length);
+    }
+
+    @Test
+    void encode_ShouldWriteClockwiseRingCommands() {
+        VectorTileEncoder encoder = new VectorTileEncoder("zones", 4096);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("name", "Square");
+
+        encoder.addPolygonFeature(attributes, List.of(new int[]{0, 0, 10, 0, 10, 10, 0, 10}));
+        byte[] tile = encoder.encode();
+
+        // geometry field: MoveTo(1) 0,0 LineTo(3) +10,0 0,+10 -10,0 ClosePath
+        byte[] geometry = {0x22, 11, 9, 0, 0, 26, 20, 0, 0, 20, 19, 0, 15};
+        assertTrue(indexOf(tile, geometry) >= 0);
+        assertTrue(indexOf(tile, "zones".getBytes(StandardCharsets.UTF_8)) >= 0);
+        assertTrue(indexOf(tile, "Square".getBytes(StandardCharsets.UTF_8)) >= 0);
+    }
+
+    @Test
+    void encode_ShouldReverseCounterClockwiseRing() {
+        VectorTileEncoder encoder = new VectorTileEncoder("zones", 4096);
+
+        encoder.addPolygonFeature(Map.of(), List.of(new int[]{0, 0, 0, 10, 10, 10, 10, 0}));
+        byte[] tile = encoder.encode();
+
+        byte[] geometry = {0x22, 11, 9, 0, 0, 26, 20, 0, 0, 20, 19, 0, 15};
+        assertTrue(indexOf(tile, geometry) >= 0);
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
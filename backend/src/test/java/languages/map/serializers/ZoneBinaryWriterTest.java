@@ -0,0 +1,102 @@
+package languages.map.serializers;
+
+import languages.map.models.LanguagesZone;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZoneBinaryWriterTest {
+
+    @Test
+    void write_ShouldEncodeHeaderAttributesAndDeltaRing() throws Exception {
+        LanguagesZone zone = new LanguagesZone();
+        zone.setId(new ObjectId());
+        zone.setName("Zone");
+        zone.setColor(new Integer[]{255, 0, 16});
+        zone.setYear(2024);
+        zone.setCoords(List.of(new GeoJsonPolygon(List.of(
+                new Point(50.5, 14.25),
+                new Point(50.5, 14.5),
+                new Point(50.75, 14.5),
+                new Point(50.5, 14.25)
+        ))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ZoneBinaryWriter(out, 2).write(zone);
+        Reader reader = new Reader(out.toByteArray());
+
+        assertEquals("LZB", reader.string(3));
+        assertEquals(ZoneBinaryWriter.FORMAT_VERSION, reader.next());
+        assertEquals(2, reader.varint());
+        assertEquals(0b0110011, reader.next());
+        assertArrayEquals(zone.getId().toByteArray(), reader.bytes(12));
+        assertEquals("Zone", reader.string((int) reader.varint()));
+        assertArrayEquals(new int[]{255, 0, 16}, new int[]{reader.next(), reader.next(), reader.next()});
+        assertEquals(2024, reader.zigZag());
+        assertEquals(1, reader.varint());
+        assertEquals(4, reader.varint());
+        long[] deltas = new long[8];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = reader.zigZag();
+        }
+        assertArrayEquals(new long[]{5050, 1425, 0, 25, 25, 0, -25, -25}, deltas);
+        assertTrue(reader.atEnd());
+    }
+
+    @Test
+    void constructor_ShouldRejectPrecisionOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new ZoneBinaryWriter(new ByteArrayOutputStream(), 10));
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int next() {
+            return data[position++] & 0xFF;
+        }
+
+        byte[] bytes(int length) {
+            byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String string(int length) {
+            return new String(bytes(length), StandardCharsets.UTF_8);
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = next();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long zigZag() {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        boolean atEnd() {
+            return position == data.length;
+        }
+    }
+}
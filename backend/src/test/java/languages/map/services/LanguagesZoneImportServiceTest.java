@@ -0,0 +1,56 @@
+package languages.map.services;
+
+import languages.map.dto.ZoneImportResult;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.repositories.LanguagesZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class LanguagesZoneImportServiceTest {
+
+    private LanguagesZoneRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private LanguagesZoneImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LanguagesZoneRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(repository.insertUnordered(anyList())).thenReturn(Map.of());
+        importService = new LanguagesZoneImportService(repository, eventPublisher, 10);
+    }
+
+    @Test
+    void importZones_ShouldRejectSelfIntersectingPolygons() throws Exception {
+        String json = """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "properties": {"name": "Bowtie"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[0, 0], [1, 1], [1, 0], [0, 1], [0, 0]]]}},
+                  {"type": "Feature", "properties": {"name": "Square"},
+                   "geometry": {"type": "Polygon", "coordinates": [[[10, 50], [11, 50], [11, 51], [10, 51], [10, 50]]]}}
+                ]}
+                """;
+
+        ZoneImportResult result = importService.importZones(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 2024);
+
+        assertEquals(2, result.getFeatures());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        ZoneImportResult.FeatureError error = result.getErrors().get(0);
+        assertEquals(0, error.index());
+        assertEquals("Bowtie", error.name());
+        assertTrue(error.message().startsWith("Invalid polygon 0: Self-intersection"), error.message());
+        verify(repository, times(1)).insertUnordered(anyList());
+        verify(eventPublisher).publishEvent(LanguagesZoneChangedEvent.reloaded(2024));
+    }
+}
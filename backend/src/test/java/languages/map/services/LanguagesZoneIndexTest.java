@@ -0,0 +1,122 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.List;
+import java.util.Optional;
+
+import static languages.map.ZoneFixtures.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class LanguagesZoneIndexTest {
+
+    private LanguagesZoneRepository repository;
+    private LanguagesZoneIndex index;
+    private LanguagesZone west;
+    private LanguagesZone east;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LanguagesZoneRepository.class);
+        index = new LanguagesZoneIndex(repository, 2);
+        west = square(2024, 0, 0, 1);
+        east = square(2024, 10, 10, 1);
+        when(repository.findAllByYear(2024)).thenReturn(Optional.of(List.of(west, east)));
+    }
+
+    @Test
+    void query_ShouldReturnOnlyZonesIntersectingEnvelope() {
+        List<LanguagesZone> zones = index.query(2024, new Envelope(-1, 1.5, -1, 1.5));
+
+        assertEquals(List.of(west), zones);
+        verify(repository, times(1)).findAllByYear(2024);
+    }
+
+    @Test
+    void query_ShouldLoadYearOnlyOnce() {
+        index.query(2024, new Envelope(-1, 1, -1, 1));
+        index.query(2024, new Envelope(9, 11, 9, 11));
+
+        verify(repository, times(1)).findAllByYear(2024);
+    }
+
+    @Test
+    void savedZone_ShouldBecomeVisibleInLoadedYear() {
+        index.query(2024, new Envelope(-1, 1, -1, 1));
+        LanguagesZone added = square(2024, 20, 20, 1);
+
+        index.onLanguagesZoneChanged(LanguagesZoneChangedEvent.saved(added));
+
+        assertEquals(List.of(added), index.query(2024, new Envelope(19, 21, 19, 21)));
+    }
+
+    @Test
+    void updatedZone_ShouldMoveBetweenYears() {
+        when(repository.findAllByYear(2023)).thenReturn(Optional.of(List.of()));
+        index.query(2023, new Envelope(-1, 1, -1, 1));
+        index.query(2024, new Envelope(-1, 1, -1, 1));
+        west.setYear(2023);
+
+        index.onLanguagesZoneChanged(LanguagesZoneChangedEvent.updated(west, 2024));
+
+        assertTrue(index.query(2024, new Envelope(-1, 1, -1, 1)).isEmpty());
+        assertEquals(List.of(west), index.query(2023, new Envelope(-1, 1, -1, 1)));
+    }
+
+    @Test
+    void deletedZone_ShouldDisappear() {
+        index.query(2024, new Envelope(-1, 1, -1, 1));
+
+        index.onLanguagesZoneChanged(LanguagesZoneChangedEvent.deleted(west.getId(), null));
+
+        assertTrue(index.query(2024, new Envelope(-1, 1, -1, 1)).isEmpty());
+    }
+
+    @Test
+    void deletedZone_ShouldDisappearWhenDeletedDuringLoad() {
+        when(repository.findAllByYear(2024)).thenAnswer(invocation -> {
+            // the delete is published while the read still returns the zone
+            index.onLanguagesZoneChanged(LanguagesZoneChangedEvent.deleted(west.getId(), null));
+            return Optional.of(List.of(west, east));
+        });
+
+        assertTrue(index.query(2024, new Envelope(-1, 1, -1, 1)).isEmpty());
+        assertEquals(List.of(east), index.query(2024, new Envelope(9, 11, 9, 11)));
+    }
+
+    @Test
+    void query_ShouldDropLeastRecentlyQueriedYearPastLimit() {
+        when(repository.findAllByYear(anyInt())).thenReturn(Optional.of(List.of()));
+        when(repository.findAllByYear(2024)).thenReturn(Optional.of(List.of(west, east)));
+        Envelope everywhere = new Envelope(-90, 90, -180, 180);
+
+        index.query(2024, everywhere);
+        index.query(2023, everywhere);
+        index.query(2024, everywhere);
+        index.query(2022, everywhere);
+        index.query(2024, everywhere);
+        index.query(2023, everywhere);
+
+        verify(repository, times(1)).findAllByYear(2024);
+        verify(repository, times(2)).findAllByYear(2023);
+    }
+
+    @Test
+    void query_ShouldRetryYearAfterFailedLoad() {
+        when(repository.findAllByYear(2024))
+                .thenThrow(new IllegalStateException("unreachable"))
+                .thenReturn(Optional.of(List.of(west)));
+
+        assertThrows(IllegalStateException.class, () -> index.query(2024, new Envelope(-1, 1, -1, 1)));
+
+        assertEquals(List.of(west), index.query(2024, new Envelope(-1, 1, -1, 1)));
+    }
+}
@@ -0,0 +1,167 @@
+package languages.map.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import languages.map.configurations.ClipExecutorConfig;
+import languages.map.dto.BoundingBoxRequest;
+import languages.map.geometry.RectangleClipper;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static languages.map.ZoneFixtures.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LanguagesZoneServiceTest {
+
+    private static final Envelope VIEWPORT = new Envelope(0, 10.5, 0, 10.5);
+    private final List<LanguagesZone> zones = new ArrayList<>();
+    private LanguagesZoneRepository repository;
+    private ExecutorService executor;
+    private LanguagesZoneService service;
+
+    @BeforeEach
+    void setUp() {
+        // later zones are larger, so their clips tend to finish last and out of order
+        for (int i = 0; i < 40; i++) {
+            zones.add(square(2024, i % 12, i % 12, 1 + i * 0.25));
+        }
+        LanguagesZoneIndex index = mock(LanguagesZoneIndex.class);
+        when(index.query(eq(2024), any(Envelope.class))).thenReturn(zones);
+        // the pool of ClipExecutorConfig with a tiny queue, so some zones are clipped on the caller
+        executor = new ClipExecutorConfig().zoneClipExecutor(4, 2);
+        repository = mock(LanguagesZoneRepository.class);
+        service = new LanguagesZoneService(repository, index,
+                new ZoneGeometryCache(new double[]{0.01}, 100), mock(ApplicationEventPublisher.class),
+                ZoneQueryMode.INDEX, executor, 60_000, new ZoneMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getLanguagesZone_ShouldMatchSequentialClippingInOrder() {
+        List<LanguagesZone> parallel = service.getLanguagesZone(VIEWPORT, 0, 2024);
+
+        assertEquals(sequential(), ids(parallel));
+        assertEquals(37, parallel.size());
+    }
+
+    @Test
+    void streamLanguagesZone_ShouldWriteInCandidateOrder() throws Exception {
+        List<LanguagesZone> written = new ArrayList<>();
+
+        service.streamLanguagesZone(request(), 2024, written::add);
+
+        assertEquals(sequential(), ids(written));
+    }
+
+    @Test
+    void streamLanguagesZone_ShouldApplyClipDeadlineToEachZone() throws Exception {
+        List<LanguagesZone> many = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            many.add(square(2024, i % 8, i % 8, 2));
+        }
+        LanguagesZoneIndex index = mock(LanguagesZoneIndex.class);
+        when(index.query(eq(2024), any(Envelope.class))).thenReturn(many);
+        // every clip takes 2 ms, so the whole stream takes far longer than the 200 ms deadline of one zone
+        ZoneGeometryCache slowCache = new ZoneGeometryCache(new double[]{0.01}, 1000) {
+            @Override
+            public List<Geometry> get(LanguagesZone zone, double tolerance) {
+                sleep(2);
+                return super.get(zone, tolerance);
+            }
+        };
+        ExecutorService singleThread = new ClipExecutorConfig().zoneClipExecutor(1, 1);
+        LanguagesZoneService shortDeadline = new LanguagesZoneService(mock(LanguagesZoneRepository.class), index,
+                slowCache, mock(ApplicationEventPublisher.class), ZoneQueryMode.INDEX, singleThread, 200,
+                new ZoneMetrics(new SimpleMeterRegistry()));
+        List<LanguagesZone> written = new ArrayList<>();
+
+        try {
+            // a slow client on top, blocking the writer
+            shortDeadline.streamLanguagesZone(request(), 2024, zone -> {
+                sleep(1);
+                written.add(zone);
+            });
+        } finally {
+            singleThread.shutdownNow();
+        }
+
+        assertEquals(ids(many), ids(written));
+    }
+
+    @Test
+    void getLanguagesZone_ShouldClipOnCallerAfterShutdown() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // the 60 second clip deadline would be hit if rejected zones were silently dropped
+        List<LanguagesZone> result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> service.getLanguagesZone(VIEWPORT, 0, 2024));
+
+        assertEquals(sequential(), ids(result));
+    }
+
+    @Test
+    void saveLanguageZone_ShouldContinueFromStoredVersion() {
+        LanguagesZone stored = square(2024, 0, 0, 1);
+        stored.setVersion(5L);
+        when(repository.findById(stored.getId())).thenReturn(Optional.of(stored));
+        when(repository.save(any(LanguagesZone.class))).then(invocation -> invocation.getArgument(0));
+        LanguagesZone stale = square(2024, 0, 0, 2);
+        stale.setId(stored.getId());
+        stale.setVersion(1L);
+        LanguagesZone fresh = square(2024, 0, 0, 2);
+        fresh.setId(null);
+        fresh.setVersion(42L);
+
+        assertEquals(6L, service.saveLanguageZone(stale).getVersion());
+        assertEquals(1L, service.saveLanguageZone(fresh).getVersion());
+    }
+
+    private List<ObjectId> sequential() {
+        RectangleClipper clipper = new RectangleClipper(VIEWPORT);
+        return ids(zones.stream().map(zone -> service.processZone(zone, clipper, 0)).filter(Objects::nonNull)
+                .toList());
+    }
+
+    private static BoundingBoxRequest request() {
+        BoundingBoxRequest request = new BoundingBoxRequest();
+        request.setLeftTopPointLatLon(new double[]{0, 0});
+        request.setRightBottomPointLatLon(new double[]{10.5, 10.5});
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<ObjectId> ids(List<LanguagesZone> zones) {
+        return zones.stream().map(LanguagesZone::getId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package languages.map.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import languages.map.dto.BoundingBoxRequest;
+import languages.map.models.LanguagesZone;
+import languages.map.repositories.LanguagesZoneRepository;
+import languages.map.repositories.ReactiveLanguagesZoneRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static languages.map.ZoneFixtures.circle;
+import static languages.map.ZoneFixtures.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReactiveLanguagesZoneServiceTest {
+
+    private ReactiveLanguagesZoneRepository repository;
+    private ExecutorService executor;
+    private Scheduler scheduler;
+    private ReactiveLanguagesZoneService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReactiveLanguagesZoneRepository.class);
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = Schedulers.newParallel("zone-clip-test-", 4, true);
+        LanguagesZoneService languagesZoneService = new LanguagesZoneService(mock(LanguagesZoneRepository.class),
+                mock(LanguagesZoneIndex.class), new ZoneGeometryCache(new double[]{0.01}, 100),
+                mock(ApplicationEventPublisher.class), ZoneQueryMode.INDEX, executor, 10_000,
+                new ZoneMetrics(new SimpleMeterRegistry()));
+        service = new ReactiveLanguagesZoneService(repository, languagesZoneService, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getLanguagesZone_ShouldKeepCursorOrder() {
+        // the first zone has by far the most vertices, so its clip finishes last
+        LanguagesZone detailed = circle(2024, 5, 5, 20, 20_000);
+        List<LanguagesZone> small = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            small.add(square(2024, i % 8, i % 8, 2));
+        }
+        List<ObjectId> expected = new ArrayList<>();
+        expected.add(detailed.getId());
+        small.forEach(zone -> expected.add(zone.getId()));
+        when(repository.findAllByYearOverlapping(eq(2024), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(Flux.concat(Flux.just(detailed), Flux.fromIterable(small)));
+
+        StepVerifier.create(service.getLanguagesZone(request(0, 0, 10, 10), 2024).map(LanguagesZone::getId))
+                .expectNextSequence(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    void getLanguagesZone_ShouldClipToBoundingBoxAndDropZonesOutside() {
+        LanguagesZone crossing = square(2024, 8, 8, 4);
+        // stored without an envelope, so the query returns it whatever the bounding box
+        LanguagesZone outside = square(2024, 20, 20, 1);
+        when(repository.findAllByYearOverlapping(eq(2024), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(Flux.just(crossing, outside));
+
+        StepVerifier.create(service.getLanguagesZone(request(0, 0, 10, 10), 2024))
+                .assertNext(zone -> {
+                    assertEquals(crossing.getId(), zone.getId());
+                    assertInside(zone, 10);
+                })
+                .verifyComplete();
+    }
+
+    private static void assertInside(LanguagesZone zone, double max) {
+        zone.getCoords().forEach(polygon -> polygon.getPoints().forEach(point ->
+                assertTrue(point.getX() >= 0 && point.getX() <= max && point.getY() >= 0 && point.getY() <= max,
+                        point::toString)));
+    }
+
+    private static BoundingBoxRequest request(double minLat, double minLon, double maxLat, double maxLon) {
+        BoundingBoxRequest request = new BoundingBoxRequest();
+        request.setLeftTopPointLatLon(new double[]{minLat, minLon});
+        request.setRightBottomPointLatLon(new double[]{maxLat, maxLon});
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package languages.map.services;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import languages.map.events.ChunkChangedEvent;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.events.ZoneBulkWriteEvent;
+import languages.map.models.LanguagesZone;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static languages.map.ZoneFixtures.square;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Follows a single-node replica set like the {@code replica} profile of compose.yaml.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ZoneChangeStreamIntegrationTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+    private final ApplicationEventPublisher eventPublisher = events::add;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ZoneChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new MongoTemplate(client, "map-" + new ObjectId());
+        mongoTemplate.createCollection(LanguagesZone.class);
+        listener = startListener();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.stop();
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void shouldPublishWritesOfOtherInstances() {
+        LanguagesZone zone = mongoTemplate.insert(square(2024, 0, 0, 1));
+
+        LanguagesZoneChangedEvent event = awaitZoneEvent();
+
+        assertEquals(LanguagesZoneChangedEvent.Operation.SAVED, event.operation());
+        assertEquals(zone.getId(), event.id());
+        assertEquals(2024, event.year());
+    }
+
+    @Test
+    void shouldSkipEchoesOfLocalWrites() {
+        LanguagesZone local = square(2024, 0, 0, 1);
+        listener.onLanguagesZoneChanged(LanguagesZoneChangedEvent.saved(local));
+        mongoTemplate.insert(local);
+        List<LanguagesZone> bulk = List.of(square(2024, 0, 0, 1), square(2024, 0, 0, 1));
+        listener.onZoneBulkWrite(ZoneBulkWriteEvent.written(bulk.stream().map(LanguagesZone::getId).toList(), 1L));
+        mongoTemplate.insertAll(bulk);
+        LanguagesZone remote = mongoTemplate.insert(square(2023, 0, 0, 1));
+
+        // changes arrive in order, so the echoes were skipped once the remote write shows up
+        LanguagesZoneChangedEvent event = awaitZoneEvent();
+
+        assertEquals(remote.getId(), event.id());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void shouldResumeFromStoredToken() {
+        listener.stop();
+        LanguagesZone missed = mongoTemplate.insert(square(2024, 0, 0, 1));
+
+        listener = startListener();
+
+        LanguagesZoneChangedEvent event = awaitZoneEvent();
+        assertEquals(LanguagesZoneChangedEvent.Operation.SAVED, event.operation());
+        assertEquals(missed.getId(), event.id());
+    }
+
+    /**
+     * Starts a listener of the same instance and waits until its stream is open.
+     */
+    private ZoneChangeStreamListener startListener() {
+        ZoneChangeStreamListener started = new ZoneChangeStreamListener(mongoTemplate, eventPublisher, "test", 50);
+        started.start();
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            mongoTemplate.getCollection(ZoneChangeTranslator.CHUNKS_COLLECTION).insertOne(new Document());
+            return events.stream().anyMatch(ChunkChangedEvent.class::isInstance);
+        });
+        events.removeIf(ChunkChangedEvent.class::isInstance);
+        return started;
+    }
+
+    private LanguagesZoneChangedEvent awaitZoneEvent() {
+        await().atMost(Duration.ofSeconds(30)).until(() -> events.peek() instanceof LanguagesZoneChangedEvent);
+        return (LanguagesZoneChangedEvent) events.poll();
+    }
+}
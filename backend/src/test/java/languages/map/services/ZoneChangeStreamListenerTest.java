@@ -0,0 +1,40 @@
+package languages.map.services;
+
+import com.mongodb.MongoException;
+import languages.map.events.LanguagesZoneChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ZoneChangeStreamListenerTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private ZoneChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        listener = new ZoneChangeStreamListener(mock(MongoTemplate.class), eventPublisher, "test", 50);
+    }
+
+    @Test
+    void restartWithoutToken_ShouldClearAllWhenHistoryIsLost() {
+        assertTrue(listener.restartWithoutToken(new MongoException(286, "resume point no longer in the oplog")));
+
+        verify(eventPublisher).publishEvent(LanguagesZoneChangedEvent.cleared());
+    }
+
+    @Test
+    void restartWithoutToken_ShouldLeaveOtherFailuresToBackoff() {
+        assertFalse(listener.restartWithoutToken(new MongoException(6, "host unreachable")));
+        assertFalse(listener.restartWithoutToken(new IllegalStateException("closed")));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,181 @@
+package languages.map.services;
+
+import com.mongodb.client.model.changestream.OperationType;
+import languages.map.events.ChunkChangedEvent;
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.models.LanguagesZone;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZoneChangeTranslatorTest {
+
+    private AtomicLong clock;
+    private LocalWrites localWrites;
+    private ZoneChangeTranslator translator;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        localWrites = new LocalWrites(100, 1000, clock::get);
+        translator = new ZoneChangeTranslator(ZoneChangeTranslatorTest::read, localWrites, 3);
+    }
+
+    @Test
+    void translate_ShouldPublishChangesOfOtherInstances() {
+        ObjectId id = new ObjectId();
+
+        List<Object> events = translator.translate(List.of(
+                insert(id, 2024, 1L),
+                update(id, 2024, 2L, 2023),
+                delete(id, 2024)));
+
+        assertEquals(3, events.size());
+        assertEquals(LanguagesZoneChangedEvent.Operation.SAVED, zoneEvent(events, 0).operation());
+        LanguagesZoneChangedEvent updated = zoneEvent(events, 1);
+        assertEquals(LanguagesZoneChangedEvent.Operation.UPDATED, updated.operation());
+        assertEquals(2024, updated.year());
+        assertEquals(2023, updated.previousYear());
+        LanguagesZoneChangedEvent deleted = zoneEvent(events, 2);
+        assertEquals(LanguagesZoneChangedEvent.Operation.DELETED, deleted.operation());
+        assertEquals(id, deleted.id());
+        assertEquals(2024, deleted.year());
+    }
+
+    @Test
+    void translate_ShouldSkipEchoesOfLocalWrites() {
+        ObjectId saved = new ObjectId();
+        ObjectId deleted = new ObjectId();
+        ObjectId chunk = new ObjectId();
+        localWrites.written(saved, 1L);
+        localWrites.deleted(deleted);
+        localWrites.written(chunk, LocalWrites.ANY_VERSION);
+
+        List<Object> events = translator.translate(List.of(
+                insert(saved, 2024, 1L),
+                delete(deleted, 2024),
+                new ZoneChangeTranslator.Change(OperationType.INSERT, ZoneChangeTranslator.CHUNKS_COLLECTION, chunk,
+                        new Document("_id", chunk), null)));
+
+        assertTrue(events.isEmpty());
+        assertEquals(0, localWrites.size());
+    }
+
+    @Test
+    void translate_ShouldRecogniseBothEchoesOfTwoQuickUpdates() {
+        ObjectId id = new ObjectId();
+        localWrites.written(id, 2L);
+        localWrites.written(id, 3L);
+
+        // both echoes look up the document after the second update
+        List<Object> events = translator.translate(List.of(update(id, 2024, 3L, 2024), update(id, 2024, 3L, 2024)));
+
+        assertTrue(events.isEmpty());
+        assertEquals(0, localWrites.size());
+    }
+
+    @Test
+    void translate_ShouldPublishNewerVersionThanLocallyWritten() {
+        ObjectId id = new ObjectId();
+        localWrites.written(id, 2L);
+
+        List<Object> events = translator.translate(List.of(update(id, 2024, 5L, 2024)));
+
+        assertEquals(1, events.size());
+        assertEquals(LanguagesZoneChangedEvent.Operation.UPDATED, zoneEvent(events, 0).operation());
+    }
+
+    @Test
+    void translate_ShouldSkipEchoesOfBulkWrites() {
+        List<ObjectId> ids = List.of(new ObjectId(), new ObjectId(), new ObjectId(), new ObjectId());
+        List<ZoneChangeTranslator.Change> batch = new ArrayList<>();
+        for (ObjectId id : ids) {
+            localWrites.written(id, 1L);
+            batch.add(insert(id, 2024, 1L));
+        }
+
+        assertTrue(translator.translate(batch).isEmpty());
+    }
+
+    @Test
+    void translate_ShouldReloadYearOfBurst() {
+        List<ZoneChangeTranslator.Change> batch = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            batch.add(insert(new ObjectId(), 2024, 1L));
+        }
+        ObjectId other = new ObjectId();
+        batch.add(insert(other, 2023, 1L));
+        ObjectId chunk = new ObjectId();
+        batch.add(new ZoneChangeTranslator.Change(OperationType.DELETE, ZoneChangeTranslator.CHUNKS_COLLECTION, chunk,
+                null, null));
+
+        List<Object> events = translator.translate(batch);
+
+        assertEquals(3, events.size());
+        assertEquals(other, zoneEvent(events, 0).id());
+        assertEquals(new ChunkChangedEvent(chunk, true), events.get(1));
+        assertEquals(LanguagesZoneChangedEvent.reloaded(2024), events.get(2));
+    }
+
+    @Test
+    void translate_ShouldClearOnDroppedCollection() {
+        List<Object> events = translator.translate(List.of(
+                new ZoneChangeTranslator.Change(OperationType.DROP, ZoneChangeTranslator.ZONES_COLLECTION, null,
+                        null, null),
+                new ZoneChangeTranslator.Change(OperationType.DROP, ZoneChangeTranslator.CHUNKS_COLLECTION, null,
+                        null, null)));
+
+        assertEquals(List.of(LanguagesZoneChangedEvent.cleared()), events);
+    }
+
+    @Test
+    void translate_ShouldPublishChangeAfterLocalWriteExpired() {
+        ObjectId id = new ObjectId();
+        localWrites.written(id, 1L);
+        clock.addAndGet(2_000_000_000L);
+
+        List<Object> events = translator.translate(List.of(insert(id, 2024, 1L)));
+
+        assertEquals(1, events.size());
+        assertEquals(0, localWrites.size());
+    }
+
+    private static LanguagesZoneChangedEvent zoneEvent(List<Object> events, int index) {
+        return (LanguagesZoneChangedEvent) events.get(index);
+    }
+
+    private static ZoneChangeTranslator.Change insert(ObjectId id, int year, long version) {
+        return new ZoneChangeTranslator.Change(OperationType.INSERT, ZoneChangeTranslator.ZONES_COLLECTION, id,
+                document(id, year, version), null);
+    }
+
+    private static ZoneChangeTranslator.Change update(ObjectId id, int year, long version, int previousYear) {
+        return new ZoneChangeTranslator.Change(OperationType.UPDATE, ZoneChangeTranslator.ZONES_COLLECTION, id,
+                document(id, year, version), document(id, previousYear, version - 1));
+    }
+
+    private static ZoneChangeTranslator.Change delete(ObjectId id, int year) {
+        return new ZoneChangeTranslator.Change(OperationType.DELETE, ZoneChangeTranslator.ZONES_COLLECTION, id,
+                null, document(id, year, 1L));
+    }
+
+    private static Document document(ObjectId id, int year, long version) {
+        return new Document("_id", id).append("year", year).append("version", version);
+    }
+
+    private static LanguagesZone read(Document document) {
+        LanguagesZone zone = new LanguagesZone();
+        zone.setId(document.getObjectId("_id"));
+        zone.setYear(document.getInteger("year"));
+        zone.setVersion(document.getLong("version"));
+        return zone;
+    }
+}
@@ -0,0 +1,62 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ZoneDatasetVersionsTest {
+
+    @Test
+    void version_ShouldChangeOnlyWithWritesOfTheYear() {
+        ZoneDatasetVersions versions = new ZoneDatasetVersions();
+        String before2024 = versions.version(2024);
+        String before2023 = versions.version(2023);
+
+        versions.onLanguagesZoneChanged(LanguagesZoneChangedEvent.reloaded(2024));
+
+        assertNotEquals(before2024, versions.version(2024));
+        assertEquals(before2023, versions.version(2023));
+        assertEquals(versions.version(2023), versions.version(2022));
+    }
+
+    @Test
+    void onLanguagesZoneChanged_ShouldBumpAfterStateListeners() {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(ZoneDatasetVersions.class, StateProbe.class)) {
+            ZoneDatasetVersions versions = context.getBean(ZoneDatasetVersions.class);
+            StateProbe probe = context.getBean(StateProbe.class);
+            String before = versions.version(2024);
+
+            context.publishEvent(LanguagesZoneChangedEvent.reloaded(2024));
+
+            assertEquals(List.of(before), probe.seen);
+            assertNotEquals(before, versions.version(2024));
+        }
+    }
+
+    /**
+     * Stands in for a cache, recording the version it sees while applying a write.
+     */
+    static class StateProbe {
+        private final List<String> seen = new ArrayList<>();
+        private final ZoneDatasetVersions versions;
+
+        StateProbe(ZoneDatasetVersions versions) {
+            this.versions = versions;
+        }
+
+        @EventListener
+        @Order(ZoneDatasetVersions.STATE_ORDER)
+        public void onLanguagesZoneChanged(LanguagesZoneChangedEvent event) {
+            seen.add(versions.version(event.year()));
+        }
+    }
+}
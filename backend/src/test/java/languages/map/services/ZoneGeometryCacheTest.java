@@ -0,0 +1,70 @@
+package languages.map.services;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.models.LanguagesZone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.List;
+
+import static languages.map.ZoneFixtures.square;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ZoneGeometryCacheTest {
+
+    private ZoneGeometryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ZoneGeometryCache(new double[]{0.01, 0.1}, 2);
+    }
+
+    @Test
+    void get_ShouldReuseGeometriesOfUnchangedZone() {
+        LanguagesZone zone = square(2024, 0, 0, 1);
+
+        List<Geometry> first = cache.get(zone);
+
+        assertSame(first, cache.get(zone));
+        zone.setVersion(2L);
+        assertNotSame(first, cache.get(zone));
+    }
+
+    @Test
+    void get_ShouldKeepAtMostMaxZones() {
+        LanguagesZone first = square(2024, 0, 0, 1);
+        List<Geometry> geometries = cache.get(first);
+        cache.get(square(2024, 0, 0, 1));
+        cache.get(square(2024, 0, 0, 1));
+
+        assertEquals(2, cache.size());
+        assertNotSame(geometries, cache.get(first));
+    }
+
+    @Test
+    void reloaded_ShouldDropZonesOfTheYearOnly() {
+        LanguagesZone reloaded = square(2024, 0, 0, 1);
+        LanguagesZone kept = square(2023, 0, 0, 1);
+        List<Geometry> reloadedGeometries = cache.get(reloaded);
+        List<Geometry> keptGeometries = cache.get(kept);
+
+        cache.onLanguagesZoneChanged(LanguagesZoneChangedEvent.reloaded(2024));
+
+        assertEquals(1, cache.size());
+        assertSame(keptGeometries, cache.get(kept));
+        assertNotSame(reloadedGeometries, cache.get(reloaded));
+    }
+
+    @Test
+    void get_ShouldRebuildZoneMovedToAnotherYear() {
+        LanguagesZone zone = square(2024, 0, 0, 1);
+        List<Geometry> geometries = cache.get(zone);
+
+        zone.setYear(2023);
+
+        assertNotSame(geometries, cache.get(zone));
+    }
+}
@@ -0,0 +1,74 @@
+package languages.map.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+public class OutboundSessionLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundSessionLimiter limiter;
+    private WebSocketSession session;
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new OutboundSessionLimiter(meterRegistry, 3, 1024, 4096, new String[]{"/topic/heartbeat"});
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        limiter.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+    }
+
+    @Test
+    void beforeHandle_ShouldSkipMessageSupersededBySameKey() {
+        Message<?> older = limiter.preSend(message("/queue/zones-usersession-1", "5/17/10/0", 100), channel);
+        Message<?> newer = limiter.preSend(message("/queue/zones-usersession-1", "5/17/10/0", 100), channel);
+
+        assertNull(limiter.beforeHandle(older, channel, handler));
+        Message<?> handled = limiter.beforeHandle(newer, channel, handler);
+        assertNotNull(handled);
+        limiter.afterMessageHandled(handled, channel, handler, null);
+
+        assertEquals(1.0, meterRegistry.get("map.ws.outbound.coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("map.ws.outbound.buffered.bytes").gauge().value());
+    }
+
+    @Test
+    void preSend_ShouldDisconnectSessionPastLag() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(limiter.preSend(message("/topic/zones/2024", null, 10), channel));
+        }
+
+        assertNull(limiter.preSend(message("/topic/zones/2024", null, 10), channel));
+        assertNull(limiter.preSend(message("/topic/zones/2024", null, 10), channel));
+
+        verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, meterRegistry.get("map.ws.outbound.disconnects").tag("reason", "lag").counter().count());
+    }
+
+    private static Message<byte[]> message(String destination, String coalesceKey, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("session-1");
+        accessor.setDestination(destination);
+        if (coalesceKey != null) {
+            accessor.setNativeHeader(OutboundSessionLimiter.COALESCE_KEY_HEADER, coalesceKey);
+        }
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+}
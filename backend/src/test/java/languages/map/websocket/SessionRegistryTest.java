@@ -0,0 +1,81 @@
+package languages.map.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class SessionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SessionRegistry registry;
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new SessionRegistry(meterRegistry, 2, 1800);
+        handler = registry.decorate(mock(WebSocketHandler.class));
+    }
+
+    @Test
+    void onSessionDisconnect_ShouldRemoveSessionFromIndexes() throws Exception {
+        handler.afterConnectionEstablished(session("session-1"));
+        registry.assignUser("session-1", () -> "anna");
+        registry.onSessionSubscribe(new SessionSubscribeEvent(this, subscribe("session-1", "/topic/zones/2024")));
+
+        assertEquals(Set.of("session-1"), registry.sessionsOfUser("anna"));
+        assertTrue(registry.hasSubscribers(2024));
+
+        registry.onSessionDisconnect(new SessionDisconnectEvent(
+                this, subscribe("session-1", null), "session-1", CloseStatus.NORMAL));
+
+        assertTrue(registry.sessionsOfUser("anna").isEmpty());
+        assertFalse(registry.hasSubscribers(2024));
+        assertEquals(0, registry.size());
+        assertEquals(0.0, meterRegistry.get("map.ws.sessions.users").gauge().value());
+    }
+
+    @Test
+    void afterConnectionEstablished_ShouldRefuseSessionsPastLimit() throws Exception {
+        handler.afterConnectionEstablished(session("session-1"));
+        handler.afterConnectionEstablished(session("session-2"));
+        WebSocketSession third = session("session-3");
+
+        handler.afterConnectionEstablished(third);
+
+        verify(third).close(any(CloseStatus.class));
+        assertEquals(2, registry.size());
+        assertEquals(1.0, meterRegistry.get("map.ws.sessions.evicted").tag("reason", "limit").counter().count());
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,104 @@
+package languages.map.websocket;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.services.LanguagesZoneService;
+import languages.map.services.ZoneDatasetVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class ViewportStreamerTest {
+
+    private LanguagesZoneService languagesZoneService;
+    private ZoneDatasetVersions zoneDatasetVersions;
+    private SimpMessagingTemplate messagingTemplate;
+    private ViewportStreamer streamer;
+
+    @BeforeEach
+    void setUp() {
+        languagesZoneService = mock(LanguagesZoneService.class);
+        zoneDatasetVersions = new ZoneDatasetVersions();
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        streamer = new ViewportStreamer(languagesZoneService, zoneDatasetVersions, messagingTemplate, 64, 4096, 20000);
+        when(languagesZoneService.getLanguagesZone(any(Envelope.class), anyDouble(), eq(2024))).thenReturn(List.of());
+    }
+
+    @Test
+    void stream_ShouldSendOnlyTilesNotYetDeliveredAtCurrentVersion() {
+        ViewportSubscription viewport = viewport(2024, new double[]{51, 20}, new double[]{45, 30}, 5);
+
+        int first = streamer.stream("session-1", viewport);
+        int repeated = streamer.stream("session-1", viewport);
+        zoneDatasetVersions.onLanguagesZoneChanged(LanguagesZoneChangedEvent.reloaded(2024));
+        int afterChange = streamer.stream("session-1", viewport);
+
+        assertTrue(first > 0);
+        assertEquals(0, repeated);
+        assertEquals(first, afterChange);
+        verify(messagingTemplate, times(first * 2)).convertAndSendToUser(
+                eq("session-1"), eq(ViewportStreamer.QUEUE), any(ViewportChunkMessage.class), any(MessageHeaders.class));
+    }
+
+    @Test
+    void stream_ShouldSendOnlyNewTilesAfterPan() {
+        streamer.stream("session-1", viewport(2024, new double[]{51, 20}, new double[]{45, 30}, 5));
+        clearInvocations(messagingTemplate);
+
+        int sent = streamer.stream("session-1", viewport(2024, new double[]{51, 25}, new double[]{45, 35}, 5));
+        int otherSession = streamer.stream("session-2", viewport(2024, new double[]{51, 25}, new double[]{45, 35}, 5));
+
+        assertTrue(sent > 0 && sent < otherSession);
+    }
+
+    @Test
+    void stream_ShouldNotMarkTilesOfSupersededYearAsDelivered() {
+        ViewportSubscription viewport = viewport(2024, new double[]{51, 20}, new double[]{45, 30}, 5);
+        int tiles = streamer.tilesOf(viewport).size();
+        AtomicBoolean switched = new AtomicBoolean();
+        // while the first tile of 2024 is computed, the session switches to 2023 somewhere else
+        when(languagesZoneService.getLanguagesZone(any(Envelope.class), anyDouble(), eq(2024)))
+                .thenAnswer(invocation -> {
+                    if (switched.compareAndSet(false, true)) {
+                        streamer.stream("session-1", viewport(2023, new double[]{-10, -60}, new double[]{-20, -50}, 5));
+                    }
+                    return List.of();
+                });
+        when(languagesZoneService.getLanguagesZone(any(Envelope.class), anyDouble(), eq(2023))).thenReturn(List.of());
+
+        streamer.stream("session-1", viewport);
+        int sent = streamer.stream("session-1", viewport(2023, new double[]{51, 20}, new double[]{45, 30}, 5));
+
+        assertEquals(zoneDatasetVersions.version(2024), zoneDatasetVersions.version(2023));
+        assertEquals(tiles, sent);
+    }
+
+    @Test
+    void tilesOf_ShouldStayWithinTileLimitAndStartAtCentre() {
+        ViewportSubscription viewport = viewport(2024, new double[]{70, -170}, new double[]{-70, 170}, 10);
+
+        List<ViewportStreamer.Tile> tiles = streamer.tilesOf(viewport);
+
+        assertTrue(tiles.size() <= 64);
+        ViewportStreamer.Tile first = tiles.get(0);
+        int centre = 1 << (first.z() - 1);
+        assertTrue(Math.abs(first.x() - centre) <= 1 && Math.abs(first.y() - centre) <= 1);
+    }
+
+    private static ViewportSubscription viewport(int year, double[] leftTop, double[] rightBottom, int zoom) {
+        ViewportSubscription viewport = new ViewportSubscription();
+        viewport.setYear(year);
+        viewport.setLeftTopPointLatLon(leftTop);
+        viewport.setRightBottomPointLatLon(rightBottom);
+        viewport.setZoom(zoom);
+        return viewport;
+    }
+}
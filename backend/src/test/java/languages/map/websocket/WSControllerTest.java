@@ -0,0 +1,81 @@
+package languages.map.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+
+import java.security.Principal;
+import java.util.HashMap;
+
+import static org.mockito.Mockito.*;
+
+public class WSControllerTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SessionRegistry sessionRegistry;
+    private WSController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        sessionRegistry = new SessionRegistry(new SimpleMeterRegistry(), 10, 1800);
+        controller = new WSController(messagingTemplate, mock(ViewportStreamer.class), sessionRegistry);
+        WebSocketHandler handler = sessionRegistry.decorate(mock(WebSocketHandler.class));
+        handler.afterConnectionEstablished(session("anna-session"));
+        handler.afterConnectionEstablished(session("spoofer-session"));
+        Principal anna = () -> "anna";
+        sessionRegistry.onSessionConnected(new SessionConnectedEvent(this, connected("anna-session"), anna));
+    }
+
+    @Test
+    void sendPrivateMessage_ShouldNotReachSessionSpoofingSenderName() {
+        SimpMessageHeaderAccessor spoofer = headers("spoofer-session");
+        controller.sendMessage(message("anna", null), spoofer);
+        controller.register(null, spoofer);
+
+        controller.sendPrivateMessage(message("bob", "anna"));
+
+        verify(messagingTemplate).convertAndSendToUser(
+                eq("anna-session"), eq("/queue/private"), any(WebSocketMessage.class), any(MessageHeaders.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(
+                eq("spoofer-session"), anyString(), any(), any(MessageHeaders.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("spoofer-session"), anyString(), any());
+    }
+
+    private static WebSocketMessage message(String sender, String recipient) {
+        WebSocketMessage message = new WebSocketMessage();
+        message.setSender(sender);
+        message.setRecipient(recipient);
+        message.setContent("hello");
+        message.setType(WebSocketMessage.MessageType.CHAT);
+        return message;
+    }
+
+    private static SimpMessageHeaderAccessor headers(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(new HashMap<>());
+        return accessor;
+    }
+
+    private static Message<byte[]> connected(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        return session;
+    }
+}
@@ -0,0 +1,96 @@
+package languages.map.websocket;
+
+import languages.map.events.LanguagesZoneChangedEvent;
+import languages.map.models.LanguagesZone;
+import languages.map.services.ZoneDatasetVersions;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+public class ZoneChangeBroadcasterTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SessionRegistry sessionRegistry;
+    private ZoneChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        sessionRegistry = mock(SessionRegistry.class);
+        when(sessionRegistry.hasSubscribers(any())).thenReturn(true);
+        broadcaster = new ZoneChangeBroadcaster(messagingTemplate, sessionRegistry);
+    }
+
+    @Test
+    void onLanguagesZoneChanged_ShouldSendUnionOfEnvelopesToBothYears() {
+        LanguagesZone zone = new LanguagesZone();
+        zone.setId(new ObjectId());
+        zone.setYear(2024);
+        zone.setVersion(2L);
+        zone.setCoords(List.of(new GeoJsonPolygon(
+                new Point(10, 10), new Point(11, 10), new Point(11, 11), new Point(10, 10))));
+
+        broadcaster.onLanguagesZoneChanged(
+                LanguagesZoneChangedEvent.updated(zone, 2023, new Envelope(0, 1, 0, 1)));
+
+        ArgumentCaptor<ZoneChangeMessage> message = ArgumentCaptor.forClass(ZoneChangeMessage.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/zones/2024"), message.capture());
+        verify(messagingTemplate).convertAndSend(eq("/topic/zones/2023"), any(ZoneChangeMessage.class));
+        assertEquals(zone.getId().toHexString(), message.getValue().id());
+        assertEquals(2L, message.getValue().version());
+        assertArrayEquals(new double[]{0, 0, 11, 11}, message.getValue().envelope());
+    }
+
+    @Test
+    void onLanguagesZoneChanged_ShouldSkipYearsWithoutSubscribers() {
+        when(sessionRegistry.hasSubscribers(2023)).thenReturn(false);
+
+        broadcaster.onLanguagesZoneChanged(LanguagesZoneChangedEvent.reloaded(2023));
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void onLanguagesZoneChanged_ShouldSendClearWithoutYearToGeneralTopic() {
+        broadcaster.onLanguagesZoneChanged(LanguagesZoneChangedEvent.cleared());
+
+        ArgumentCaptor<ZoneChangeMessage> message = ArgumentCaptor.forClass(ZoneChangeMessage.class);
+        verify(messagingTemplate).convertAndSend(eq(ZoneChangeBroadcaster.TOPIC), message.capture());
+        assertNull(message.getValue().envelope());
+    }
+
+    @Test
+    void onLanguagesZoneChanged_ShouldSendAfterDatasetVersionMoved() {
+        ZoneDatasetVersions zoneDatasetVersions = new ZoneDatasetVersions();
+        String before = zoneDatasetVersions.version(2024);
+        List<String> versionsAtSend = new ArrayList<>();
+        doAnswer(invocation -> versionsAtSend.add(zoneDatasetVersions.version(2024)))
+                .when(messagingTemplate).convertAndSend(anyString(), any(ZoneChangeMessage.class));
+
+        // the broadcaster is registered first, so only the listener order puts it after the version bump
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(ZoneChangeBroadcaster.class, () -> broadcaster);
+            context.registerBean(ZoneDatasetVersions.class, () -> zoneDatasetVersions);
+            context.refresh();
+            context.publishEvent(LanguagesZoneChangedEvent.reloaded(2024));
+        }
+
+        assertEquals(List.of(zoneDatasetVersions.version(2024)), versionsAtSend);
+        assertNotEquals(before, versionsAtSend.get(0));
+    }
+}
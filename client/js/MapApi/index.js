@@ -1,4 +1,6 @@
 // MapApi.js
+import { ZONES_BINARY_MEDIA_TYPE, decodeZones } from './zoneBinary.js';
+
 export class MapAPI {
     /**
      * Creates a new instance of MapAPI
@@ -12,6 +14,49 @@ export class MapAPI {
             'Content-Type': 'application/json',
             'Accept': 'application/json'
         };
+
+        // Last ETag and body per request, replayed when the server answers 304 Not Modified
+        this.conditionalCache = new Map();
+        this.conditionalCacheSize = 64;
+    }
+
+    /**
+     * Fetches JSON sending If-None-Match for a previously seen response of the same request
+     * @private
+     * @param {string} url - Request URL
+     * @param {Object} options - fetch options; the body is part of the cache key
+     * @param {Function} [parse] - Turns the response into data, JSON by default
+     * @returns {Promise} Resolves to the parsed response, or the cached one on 304
+     */
+    async _fetchConditional(url, options, parse = response => response.json()) {
+        const key = `${options.method || 'GET'} ${url} ${options.body || ''}`;
+        const cached = this.conditionalCache.get(key);
+        const headers = { ...options.headers };
+        if (cached) {
+            headers['If-None-Match'] = cached.etag;
+        }
+
+        const response = await fetch(url, { ...options, headers });
+        if (response.status === 304 && cached) {
+            // Refresh recency so often repeated requests stay cached
+            this.conditionalCache.delete(key);
+            this.conditionalCache.set(key, cached);
+            return cached.data;
+        }
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const data = await parse(response);
+        const etag = response.headers.get('ETag');
+        if (etag) {
+            this.conditionalCache.delete(key);
+            this.conditionalCache.set(key, { etag, data });
+            if (this.conditionalCache.size > this.conditionalCacheSize) {
+                this.conditionalCache.delete(this.conditionalCache.keys().next().value);
+            }
+        }
+        return data;
     }
 
     /**
@@ -166,9 +211,11 @@ export class MapAPI {
      * @param {number} params.year - Year to query
      * @param {Array} params.leftTop - [latitude, longitude] of top-left corner
      * @param {Array} params.rightBottom - [latitude, longitude] of bottom-right corner
+     * @param {number} [params.zoom] - Map zoom level, lets the server send simplified geometry
+     * @param {number} [params.precision] - Decimal digits per coordinate; requests the compact binary format when set
      * @returns {Promise} Resolves to array of language zones
      */
-    async getLanguageZones({ year, leftTop, rightBottom }) {
+    async getLanguageZones({ year, leftTop, rightBottom, zoom, precision }) {
         this._validateYear(year);
         if (!Array.isArray(leftTop) || !Array.isArray(rightBottom)) {
             throw new Error('Bounding box coordinates must be arrays');
@@ -179,8 +226,22 @@ export class MapAPI {
             leftTopPointLatLon: leftTop,
             rightBottomPointLatLon: rightBottom
         };
+        if (Number.isInteger(zoom)) {
+            body.zoom = zoom;
+        }
 
-        const response = await fetch(`${this.baseUrl}/areas/${year}`, {
+        if (Number.isInteger(precision)) {
+            return await this._fetchConditional(`${this.baseUrl}/areas/${year}?precision=${precision}`, {
+                method: 'POST',
+                headers: {
+                    ...this.headers,
+                    'Accept': ZONES_BINARY_MEDIA_TYPE
+                },
+                body: JSON.stringify(body),
+            }, async response => decodeZones(await response.arrayBuffer()));
+        }
+
+        return await this._fetchConditional(`${this.baseUrl}/areas/${year}`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',  // Ensure Content-Type is set to application/json
@@ -188,13 +249,41 @@ export class MapAPI {
             },
             body: JSON.stringify(body),  // Send the body as JSON
         });
+    }
 
-        if (!response.ok) {
-            throw new Error(`HTTP error! status: ${response.status}`);
+    /**
+     * Gets language zones for several chunks of one year in a single request
+     * @param {Object} params - Query parameters
+     * @param {number} params.year - Year to query
+     * @param {Object} params.chunks - Map of chunk id to { leftTop, rightBottom }
+     * @param {number} [params.zoom] - Map zoom level, lets the server send simplified geometry
+     * @returns {Promise} Resolves to an object mapping chunk id to array of language zones
+     */
+    async getLanguageZonesBatch({ year, chunks, zoom }) {
+        this._validateYear(year);
+
+        const body = { chunks: {} };
+        for (const [chunkId, { leftTop, rightBottom }] of Object.entries(chunks)) {
+            if (!Array.isArray(leftTop) || !Array.isArray(rightBottom)) {
+                throw new Error('Bounding box coordinates must be arrays');
+            }
+            body.chunks[chunkId] = {
+                leftTopPointLatLon: leftTop,
+                rightBottomPointLatLon: rightBottom
+            };
+        }
+        if (Number.isInteger(zoom)) {
+            body.zoom = zoom;
         }
 
-        const res = await response.json(); 
-        return res;
+        return await this._fetchConditional(`${this.baseUrl}/areas/${year}/batch`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                ...this.headers
+            },
+            body: JSON.stringify(body),
+        });
     }
 
 
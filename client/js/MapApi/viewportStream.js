@@ -0,0 +1,139 @@
+// viewportStream.js
+// Zones of the viewport pushed tile by tile over STOMP, see ViewportStreamer on the backend.
+import { changeOverlaps } from './zoneEvents.js';
+
+export const VIEWPORT_DESTINATION = '/app/viewport';
+export const VIEWPORT_QUEUE = '/user/queue/zones';
+
+// Must match ViewportStreamer and map.ws.viewport.max-tiles
+const MAX_TILE_ZOOM = 12;
+const MAX_TILES = 64;
+const MAX_LATITUDE = 85.0511287798066;
+
+/**
+ * Keeps every tile the server pushed for the current year. The server sends each tile once per dataset version,
+ * so tiles are never dropped here except when the year changes.
+ */
+export class ViewportStream {
+    #zoneEvents;
+    #tiles = new Map();
+    #year = null;
+    #onTile;
+
+    /**
+     * @param {import('./zoneEvents.js').ZoneEvents} zoneEvents - Connection the tiles come over
+     * @param {Function} [onTile] - Called after a tile arrived
+     */
+    constructor(zoneEvents, onTile) {
+        this.#zoneEvents = zoneEvents;
+        this.#onTile = onTile;
+        zoneEvents.subscribe(VIEWPORT_QUEUE, message => this.#receive(message));
+    }
+
+    /**
+     * Asks for the tiles of the view the server has not sent yet.
+     * @returns {boolean} Whether the request was sent; false while disconnected
+     */
+    request({ year, leftTop, rightBottom, zoom }) {
+        if (year !== this.#year) {
+            this.#tiles.clear();
+            this.#year = year;
+        }
+        return this.#zoneEvents.send(VIEWPORT_DESTINATION, {
+            year,
+            leftTopPointLatLon: leftTop,
+            rightBottomPointLatLon: rightBottom,
+            zoom
+        });
+    }
+
+    /**
+     * @returns {Object[]} Zones of the received tiles covering the view, each tagged with the
+     * `clipEnvelope` of its tile so tile seams can be left unstroked
+     */
+    zones({ leftTop, rightBottom, zoom }) {
+        const z = tileZoom(leftTop, rightBottom, zoom);
+        const zones = [];
+        for (const tile of this.#tiles.values()) {
+            if (tile.z !== z || !changeOverlaps(tile.envelope, leftTop, rightBottom)) {
+                continue;
+            }
+            for (const part of tile.parts.values()) {
+                for (const zone of part) {
+                    zones.push({ ...zone, clipEnvelope: tile.envelope });
+                }
+            }
+        }
+        return zones;
+    }
+
+    #receive(message) {
+        if (message.year !== this.#year) {
+            return;
+        }
+        // The server sends a tile again only when its version changed, so any other version replaces all parts
+        // of the stored one. Versions aren't ordered across server instances, which restart with their own epoch.
+        const key = `${message.z}/${message.x}/${message.y}`;
+        let tile = this.#tiles.get(key);
+        if (!tile || message.version !== tile.version) {
+            tile = { z: message.z, envelope: message.envelope, version: message.version, parts: new Map() };
+            this.#tiles.set(key, tile);
+        }
+        tile.parts.set(message.part, message.zones);
+        if (this.#onTile) {
+            this.#onTile(message);
+        }
+    }
+}
+
+/**
+ * @returns {number} Tile zoom the server splits the view into
+ */
+export function tileZoom(leftTop, rightBottom, zoom) {
+    const minLat = Math.min(leftTop[0], rightBottom[0]);
+    const maxLat = Math.max(leftTop[0], rightBottom[0]);
+    const minLon = Math.min(leftTop[1], rightBottom[1]);
+    const maxLon = Math.max(leftTop[1], rightBottom[1]);
+    let z = Math.max(0, Math.min(MAX_TILE_ZOOM, Number.isInteger(zoom) ? zoom + 1 : MAX_TILE_ZOOM));
+    while (z > 0) {
+        const columns = tileColumn(maxLon, z) - tileColumn(minLon, z) + 1;
+        const rows = tileRow(minLat, z) - tileRow(maxLat, z) + 1;
+        if (columns * rows <= MAX_TILES) {
+            break;
+        }
+        z--;
+    }
+    return z;
+}
+
+function tileColumn(lon, z) {
+    const tiles = 2 ** z;
+    return Math.max(0, Math.min(tiles - 1, Math.floor((lon + 180) / 360 * tiles)));
+}
+
+function tileRow(lat, z) {
+    const tiles = 2 ** z;
+    const sin = Math.sin(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)) * Math.PI / 180);
+    const mercator = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    return Math.max(0, Math.min(tiles - 1, Math.floor(mercator * tiles)));
+}
+
+/**
+ * @param {number[][]} ring - [lat, lon] positions of a polygon ring
+ * @param {number[]} [envelope] - [minLat, minLon, maxLat, maxLon] the ring was clipped to
+ * @returns {boolean[]|null} Per segment, whether it runs along the envelope border and is only a clipping seam
+ */
+export function seamSegments(ring, envelope) {
+    if (!envelope) {
+        return null;
+    }
+    const [minLat, minLon, maxLat, maxLon] = envelope;
+    const on = (value, border) => Math.abs(value - border) < 1e-9;
+    return ring.map((point, i) => {
+        const next = ring[(i + 1) % ring.length];
+        return (on(point[0], minLat) && on(next[0], minLat))
+            || (on(point[0], maxLat) && on(next[0], maxLat))
+            || (on(point[1], minLon) && on(next[1], minLon))
+            || (on(point[1], maxLon) && on(next[1], maxLon));
+    });
+}
@@ -0,0 +1,83 @@
+// zoneBinary.js
+export const ZONES_BINARY_MEDIA_TYPE = 'application/vnd.languages-map.zones';
+
+/**
+ * Decodes the compact binary zone format into the same objects the JSON endpoints return
+ * @param {ArrayBuffer} buffer - Response body
+ * @returns {Array} Language zones with GeoJSON-like polygon coords
+ */
+export function decodeZones(buffer) {
+    const bytes = new Uint8Array(buffer);
+    const view = new DataView(buffer);
+    const textDecoder = new TextDecoder();
+    let position = 0;
+
+    const varint = () => {
+        // Multiplication instead of bit shifts keeps values above 2^31 exact
+        let value = 0;
+        let factor = 1;
+        let byte;
+        do {
+            byte = bytes[position++];
+            value += (byte & 0x7f) * factor;
+            factor *= 128;
+        } while (byte & 0x80);
+        return value;
+    };
+    const zigZag = () => {
+        const value = varint();
+        return value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+    };
+    const string = () => {
+        const length = varint();
+        const value = textDecoder.decode(bytes.subarray(position, position + length));
+        position += length;
+        return value;
+    };
+
+    if (String.fromCharCode(bytes[0], bytes[1], bytes[2]) !== 'LZB' || bytes[3] !== 1) {
+        throw new Error('Unsupported zone format');
+    }
+    position = 4;
+    const scale = Math.pow(10, varint());
+
+    const zones = [];
+    while (position < bytes.length) {
+        const presence = bytes[position++];
+        const zone = {};
+        if (presence & 1) {
+            zone.id = Array.from(bytes.subarray(position, position + 12),
+                byte => byte.toString(16).padStart(2, '0')).join('');
+            position += 12;
+        }
+        if (presence & 2) zone.name = string();
+        if (presence & 4) zone.description = string();
+        if (presence & 8) {
+            zone.intensity = view.getFloat64(position, true);
+            position += 8;
+        }
+        if (presence & 16) {
+            zone.color = [bytes[position], bytes[position + 1], bytes[position + 2]];
+            position += 3;
+        }
+        if (presence & 32) zone.year = zigZag();
+        if (presence & 64) zone.version = varint();
+
+        const polygonCount = varint();
+        zone.coords = [];
+        let x = 0;
+        let y = 0;
+        for (let i = 0; i < polygonCount; i++) {
+            const pointCount = varint();
+            const ring = new Array(pointCount);
+            for (let j = 0; j < pointCount; j++) {
+                x += zigZag();
+                y += zigZag();
+                ring[j] = [x / scale, y / scale];
+            }
+            zone.coords.push({ type: 'Polygon', coordinates: [ring] });
+        }
+        zones.push(zone);
+    }
+    return zones;
+}
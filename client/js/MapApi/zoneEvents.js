@@ -0,0 +1,158 @@
+// zoneEvents.js
+// Minimal STOMP 1.2 client over a native WebSocket, enough to follow the zone change topics
+// and to stream viewport zones.
+
+export const ZONES_TOPIC = '/topic/zones';
+
+const NULL = '\0';
+// Well below the server's idle timeout, which counts inbound frames only
+const KEEP_ALIVE_MS = 5 * 60 * 1000;
+
+/**
+ * Subscribes to zone change messages of one year, reconnecting with backoff when the socket drops.
+ */
+export class ZoneEvents {
+    #url;
+    #socket = null;
+    #connected = false;
+    #subscriptions = new Map();
+    #nextId = 0;
+    #retryDelay = 1000;
+    #keepAlive = null;
+    #onReconnect;
+
+    /**
+     * @param {string} url - STOMP WebSocket endpoint, e.g. ws://127.0.0.1:8080/ws
+     * @param {Object} [options]
+     * @param {Function} [options.onReconnect] - Called after a dropped connection is back; messages may have been missed
+     */
+    constructor(url, { onReconnect } = {}) {
+        this.#url = url;
+        this.#onReconnect = onReconnect;
+        this.#connect(false);
+    }
+
+    /**
+     * @param {number} year - Year of zones to follow
+     * @param {Function} callback - Receives every change message of the year and those without a year
+     * @returns {Function} Unsubscribes
+     */
+    subscribeYear(year, callback) {
+        const destinations = [`${ZONES_TOPIC}/${year}`, ZONES_TOPIC];
+        const unsubscribes = destinations.map(destination => this.subscribe(destination, callback));
+        return () => unsubscribes.forEach(unsubscribe => unsubscribe());
+    }
+
+    /**
+     * @param {string} destination - Topic or user queue, kept across reconnects
+     * @param {Function} callback - Receives the parsed JSON body of every message
+     * @returns {Function} Unsubscribes
+     */
+    subscribe(destination, callback) {
+        const id = `sub-${this.#nextId++}`;
+        this.#subscriptions.set(id, { destination, callback });
+        if (this.#connected) {
+            this.#send('SUBSCRIBE', { id, destination });
+        }
+        return () => this.#unsubscribe(id);
+    }
+
+    /**
+     * @param {string} destination - Application destination, e.g. /app/viewport
+     * @param {Object} body - Sent as JSON
+     * @returns {boolean} Whether the message was sent; nothing is queued while disconnected
+     */
+    send(destination, body) {
+        if (!this.#connected) {
+            return false;
+        }
+        this.#send('SEND', { destination, 'content-type': 'application/json' }, JSON.stringify(body));
+        return true;
+    }
+
+    get connected() {
+        return this.#connected;
+    }
+
+    #unsubscribe(id) {
+        if (this.#subscriptions.delete(id) && this.#connected) {
+            this.#send('UNSUBSCRIBE', { id });
+        }
+    }
+
+    #connect(reconnecting) {
+        const socket = new WebSocket(this.#url);
+        this.#socket = socket;
+        socket.onopen = () => {
+            this.#send('CONNECT', { 'accept-version': '1.2', 'heart-beat': '0,0' });
+        };
+        socket.onmessage = event => {
+            for (const frame of String(event.data).split(NULL)) {
+                this.#handleFrame(frame.replace(/^\n+/, ''), reconnecting);
+            }
+        };
+        socket.onclose = () => {
+            this.#connected = false;
+            clearInterval(this.#keepAlive);
+            const delay = this.#retryDelay;
+            this.#retryDelay = Math.min(this.#retryDelay * 2, 30000);
+            setTimeout(() => this.#connect(true), delay);
+        };
+    }
+
+    #handleFrame(frame, reconnecting) {
+        if (!frame) {
+            return; // heart-beat
+        }
+        const headerEnd = frame.indexOf('\n\n');
+        const head = headerEnd < 0 ? frame : frame.slice(0, headerEnd);
+        const body = headerEnd < 0 ? '' : frame.slice(headerEnd + 2);
+        const [command, ...headerLines] = head.split('\n');
+        const headers = Object.fromEntries(headerLines.map(line => {
+            const separator = line.indexOf(':');
+            return [line.slice(0, separator), line.slice(separator + 1)];
+        }));
+
+        if (command === 'CONNECTED') {
+            this.#connected = true;
+            this.#retryDelay = 1000;
+            clearInterval(this.#keepAlive);
+            this.#keepAlive = setInterval(() => this.#socket.send('\n'), KEEP_ALIVE_MS);
+            for (const [id, { destination }] of this.#subscriptions) {
+                this.#send('SUBSCRIBE', { id, destination });
+            }
+            if (reconnecting && this.#onReconnect) {
+                this.#onReconnect();
+            }
+        } else if (command === 'MESSAGE') {
+            const subscription = this.#subscriptions.get(headers.subscription);
+            if (subscription) {
+                subscription.callback(JSON.parse(body));
+            }
+        } else if (command === 'ERROR') {
+            console.error('Zone events error:', headers.message || body);
+        }
+    }
+
+    #send(command, headers, body = '') {
+        const head = Object.entries(headers).map(([name, value]) => `${name}:${value}`).join('\n');
+        this.#socket.send(`${command}\n${head}\n\n${body}${NULL}`);
+    }
+}
+
+/**
+ * @param {number[]|null} envelope - [minLat, minLon, maxLat, maxLon] of a change, null when unknown
+ * @param {number[]} leftTop - [lat, lon] corner of the area
+ * @param {number[]} rightBottom - [lat, lon] opposite corner of the area
+ * @returns {boolean} Whether the change may touch the area
+ */
+export function changeOverlaps(envelope, leftTop, rightBottom) {
+    if (!envelope) {
+        return true;
+    }
+    const [minLat, minLon, maxLat, maxLon] = envelope;
+    return minLat <= Math.max(leftTop[0], rightBottom[0])
+        && maxLat >= Math.min(leftTop[0], rightBottom[0])
+        && minLon <= Math.max(leftTop[1], rightBottom[1])
+        && maxLon >= Math.min(leftTop[1], rightBottom[1]);
+}
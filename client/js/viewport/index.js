@@ -1,4 +1,6 @@
 import MapAPI from '../MapApi/index.js';
+import { ZoneEvents, changeOverlaps } from '../MapApi/zoneEvents.js';
+import { ViewportStream, seamSegments } from '../MapApi/viewportStream.js';
 
 
 /*
@@ -340,10 +342,36 @@ function adjustViewportForAspectRatio(canvas, leftTop, rightBottom) {
 
 
 
+/**
+ * Traces the closed outline of a polygon, leaving out the segments that are only seams of tile clipping.
+ * @param {boolean[]|null} seams - Per segment, whether to skip it; null traces every segment
+ */
+function traceOutline(ctx, pixels, seams) {
+    ctx.beginPath();
+    ctx.moveTo(pixels[0][0], pixels[0][1]);
+    for (let i = 1; i <= pixels.length; i++) {
+        const [x, y] = pixels[i % pixels.length];
+        if (seams && seams[i - 1]) {
+            ctx.moveTo(x, y);
+        } else {
+            ctx.lineTo(x, y);
+        }
+    }
+}
+
+
 export class Viewport {
     #canvas;
     #chunk = null;  
     #api;
+    #zoneEvents;
+    #unsubscribeZones = null;
+    // Zones pushed over the socket, used instead of REST requests while it is connected
+    #viewportStream;
+    #streaming = false;
+    // View of the last request, and whether a zone change made it stale
+    #requestedView = null;
+    #stale = false;
     
 
     constructor(width, height, id = 'map-canvas') {
@@ -396,16 +424,24 @@ export class Viewport {
         
         document.querySelector("#app").appendChild(this.#canvas);
         this.#setupEventListeners();
-        
+
+        // Zone writes are pushed; after a reconnect changes may have been missed
+        this.#zoneEvents = new ZoneEvents('ws://127.0.0.1:8080/ws', {
+            onReconnect: () => { this.#stale = true; }
+        });
+        this.#subscribeZones();
+        this.#viewportStream = new ViewportStream(this.#zoneEvents, () => this.#showStreamedZones());
+
+        // Refetch only when the view moved or a change touched it
         setInterval(() => {
-            this.updateChunks();
+            this.#updateChunksIfNeeded();
         }, 100);
         
         setInterval(() => {
             this.draw();
         }, 25);
         
-        this.updateChunks();
+        this.#updateChunksIfNeeded();
     }
 
     #pixelDeltaToLatLonDelta(dx, dy) {
@@ -429,13 +465,47 @@ export class Viewport {
     getCanvas() {
         return this.#canvas;
     }
+
+    #subscribeZones() {
+        if (this.#unsubscribeZones) {
+            this.#unsubscribeZones();
+        }
+        this.#unsubscribeZones = this.#zoneEvents.subscribeYear(this.year, change => {
+            if (changeOverlaps(change.envelope, this.leftTop, this.rightBottom)) {
+                this.#stale = true;
+            }
+        });
+    }
+
+    #updateChunksIfNeeded() {
+        const view = `${this.year}|${this.leftTop}|${this.rightBottom}`;
+        if (!this.#stale && view === this.#requestedView) {
+            return;
+        }
+        this.#stale = false;
+        this.#requestedView = view;
+        this.updateChunks();
+    }
     
     async updateChunks() {
+        this.#streaming = this.#viewportStream.request({
+            year: this.year,
+            leftTop: this.leftTop,
+            rightBottom: this.rightBottom,
+            zoom: this.calculateZoomLevel()
+        });
+        if (this.#streaming) {
+            // Tiles already received are shown right away, missing ones arrive through #showStreamedZones
+            this.#showStreamedZones();
+            return;
+        }
         try {
             const chunksData = await this.#api.getLanguageZones({
                 year: this.year,
                 leftTop: this.leftTop,
-                rightBottom: this.rightBottom
+                rightBottom: this.rightBottom,
+                zoom: this.calculateZoomLevel(),
+                precision: 5
             });
             
             this.#chunk = new Chunk(
@@ -449,9 +519,27 @@ export class Viewport {
             this.draw();
         } catch (error) {
             console.error('Failed to update chunk:', error);
+            this.#stale = true;
         }
     }
     
+    #showStreamedZones() {
+        if (!this.#streaming) {
+            return;
+        }
+        this.#chunk = new Chunk(
+            this.#viewportStream.zones({
+                leftTop: this.leftTop,
+                rightBottom: this.rightBottom,
+                zoom: this.calculateZoomLevel()
+            }),
+            this.leftTop,
+            this.rightBottom,
+            this.center,
+            this.calculateZoomLevel()
+        );
+    }
+
     calculateZoomLevel() {
         const latSpan = Math.abs(this.rightBottom[0] - this.leftTop[0]);
         
@@ -673,7 +761,8 @@ export class Viewport {
                         color: zone.color || [100, 149, 237],
                         intensity: zone.intensity,
                         name: zone.name,
-                        area: calculatePolygonArea(screenPoints)
+                        area: calculatePolygonArea(screenPoints),
+                        seams: seamSegments(coord.coordinates[0], zone.clipEnvelope)
                     });
                     
                     // Draw fill
@@ -698,14 +787,7 @@ export class Viewport {
         
         // Draw glow effect
         polygons.forEach(polygon => {
-            ctx.beginPath();
-            ctx.moveTo(polygon.pixels[0][0], polygon.pixels[0][1]);
-            
-            for (let i = 1; i < polygon.pixels.length; i++) {
-                ctx.lineTo(polygon.pixels[i][0], polygon.pixels[i][1]);
-            }
-            
-            ctx.closePath();
+            traceOutline(ctx, polygon.pixels, polygon.seams);
             
             // Create glow effect
             ctx.shadowColor = `rgba(${polygon.color[0]}, ${polygon.color[1]}, ${polygon.color[2]}, 0.5)`;
@@ -740,14 +822,7 @@ export class Viewport {
         // Reset line dash and draw regular borders
         ctx.setLineDash([]);
         polygons.forEach(polygon => {
-            ctx.beginPath();
-            ctx.moveTo(polygon.pixels[0][0], polygon.pixels[0][1]);
-            
-            for (let i = 1; i < polygon.pixels.length; i++) {
-                ctx.lineTo(polygon.pixels[i][0], polygon.pixels[i][1]);
-            }
-            
-            ctx.closePath();
+            traceOutline(ctx, polygon.pixels, polygon.seams);
             ctx.strokeStyle = 'rgba(255, 255, 255, 0.8)';
             ctx.stroke();
         });
@@ -796,6 +871,7 @@ export class Viewport {
 
     setYear(year) {
         this.year = year;
+        this.#subscribeZones();
         this.updateChunks();
     }
 }